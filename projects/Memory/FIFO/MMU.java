@@ -25,12 +25,15 @@ public class MMU extends IflMMU
     */
 	
 	public static ArrayList<FrameTableEntry> FIFOqueue;
+	public static FramePool framePool;
 	public static int pagefaultcount = 0;
     public static void init()
     {
-        for(int i = 0; i < MMU.getFrameTableSize(); i++)
+        framePool = new FramePool(MMU.getFrameTableSize());
+        for(int i = MMU.getFrameTableSize() - 1; i >= 0; i--)
     	{
         	setFrame(i, new FrameTableEntry(i));
+        	framePool.release(getFrame(i));
         }
 		
 		FIFOqueue = new ArrayList<FrameTableEntry>();
@@ -92,25 +92,13 @@ import osp.IFLModules.*;
 public static int fifo(ThreadCB thread,PageTableEntry page)
 {
     	FrameTableEntry newFrame = null;
-		int j= -1, i=0;
-		while(i < MMU.getFrameTableSize())
-    	{
-    		newFrame = MMU.getFrame(i);
-    		if((newFrame.isReserved()) || (newFrame.getLockCount()> 0))
-    		{
-				j++;
-			}
-			i++;
-		}
-		if(j == MMU.getFrameTableSize())
+		if(MMU.framePool.isExhausted())
 		{
 			return NotEnoughMemory;
 		}
 		
-    	for(int y = 0; y < MMU.getFrameTableSize(); y++)
-    	{
-    		newFrame = MMU.getFrame(y);
-    		if((newFrame.getPage() == null) && (!newFrame.isReserved()) && (newFrame.getLockCount() <= 0))
+    	newFrame = MMU.framePool.takeFree();
+    		if(newFrame != null)
     		{
 				Event pfevent = reserveThread(thread, page, newFrame);
 				
@@ -132,7 +120,6 @@ public static int fifo(ThreadCB thread,PageTableEntry page)
 				
     	        return SUCCESS;
     		}
-    	}
 		
 		for(int x=0; x< MMU.FIFOqueue.size(); x++)	
 		{
@@ -191,7 +178,7 @@ public static int fifo(ThreadCB thread,PageTableEntry page)
 		Event pfevent = new SystemEvent("Kernel mode switching-PageFaultHappened");
     	thread.suspend(pfevent);
     	page.setValidatingThread(thread);
-    	newFrame.setReserved(thread.getTask());
+    	newFrame.reserve(thread.getTask());
 		return pfevent;
 	}
 	
@@ -199,7 +186,7 @@ public static int fifo(ThreadCB thread,PageTableEntry page)
     {
 		if(newFrame.getReserved() == thread.getTask())
     	{
-    	    newFrame.setUnreserved(thread.getTask());    		
+    	    newFrame.unreserve(thread.getTask());    		
     	}
 		page.setValidatingThread(null);
     	page.notifyThreads();
@@ -224,7 +211,10 @@ public static int fifo(ThreadCB thread,PageTableEntry page)
 		page.setFrame(null);
 	    page.notifyThreads();
         pfevent.notifyThreads();
-		newFrame.setPage(null);
+		if((newFrame.getPage() == null) || (newFrame.getPage() == page))
+		{
+			newFrame.releasePage();
+		}
 	}
 	
 	public static void swapOutCleanup(Event pfevent, PageTableEntry page)
@@ -28,6 +28,80 @@ public class FrameTableEntry extends IflFrameTableEntry
     }
 
 
+    /**
+       Reserves the frame for the task and keeps MMU.framePool up to date.
+
+       @OSPProject Memory
+    */
+    public void reserve(TaskCB task)
+    {
+        boolean wasReserved = isReserved();
+        boolean wasLocked = getLockCount() > 0;
+        setReserved(task);
+        MMU.framePool.update(this, wasReserved, wasLocked);
+    }
+
+    /**
+       Unreserves the frame if the task holds it and keeps MMU.framePool
+       up to date.
+
+       @OSPProject Memory
+    */
+    public void unreserve(TaskCB task)
+    {
+        boolean wasReserved = isReserved();
+        boolean wasLocked = getLockCount() > 0;
+        setUnreserved(task);
+        MMU.framePool.update(this, wasReserved, wasLocked);
+    }
+
+    /**
+       Increments the lock count and keeps MMU.framePool up to date.
+
+       @OSPProject Memory
+    */
+    public void lock()
+    {
+        boolean wasReserved = isReserved();
+        boolean wasLocked = getLockCount() > 0;
+        incrementLockCount();
+        MMU.framePool.update(this, wasReserved, wasLocked);
+    }
+
+    /**
+       Decrements the lock count and keeps MMU.framePool up to date.
+
+       @OSPProject Memory
+    */
+    public void unlock()
+    {
+        boolean wasReserved = isReserved();
+        boolean wasLocked = getLockCount() > 0;
+        decrementLockCount();
+        MMU.framePool.update(this, wasReserved, wasLocked);
+    }
+
+    /**
+       Detaches the page from the frame and hands the frame back to
+       MMU.framePool if nothing else holds it.
+
+       @OSPProject Memory
+    */
+    public void releasePage()
+    {
+        setPage(null);
+        MMU.framePool.release(this);
+    }
+
+    boolean inFramePool;
+
+    /*
+       Links of the LRUList this frame is on, see MMU.LRUlist.
+    */
+    FrameTableEntry lruPrev;
+    FrameTableEntry lruNext;
+    boolean inLRUList;
+
     /*
        Feel free to add methods/fields to improve the readability of your code
     */
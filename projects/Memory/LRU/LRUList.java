@@ -0,0 +1,102 @@
+package osp.Memory;
+
+/**
+    The LRUList class keeps the frames that hold a page in order of their
+    last reference, most recently used at the head. The links live in the
+    frames themselves, so a reference is an O(1) move to the head, the
+    victim is taken from the tail, and the list never holds more than the
+    frame table.
+
+    @OSPProject Memory
+*/
+public class LRUList
+{
+    private FrameTableEntry head;
+    private FrameTableEntry tail;
+
+    /**
+       Moves the frame to the most recently used end of the list,
+       linking it in if it is not on the list yet.
+
+       @OSPProject Memory
+    */
+    public void touch(FrameTableEntry frame)
+    {
+        if(frame == null || frame == head)
+        {
+            return;
+        }
+        unlink(frame);
+
+        frame.lruNext = head;
+        if(head != null)
+        {
+            head.lruPrev = frame;
+        }
+        head = frame;
+        if(tail == null)
+        {
+            tail = frame;
+        }
+        frame.inLRUList = true;
+    }
+
+    /**
+       Takes the frame off the list, e.g. when its page goes away.
+
+       @OSPProject Memory
+    */
+    public void remove(FrameTableEntry frame)
+    {
+        if(frame != null)
+        {
+            unlink(frame);
+        }
+    }
+
+    /**
+       Returns the least recently used frame that can be replaced, i.e.
+       holds a page and is neither reserved nor locked, or null if there
+       is no such frame. Frames pinned at the tail are stepped over.
+
+       @OSPProject Memory
+    */
+    public FrameTableEntry victim()
+    {
+        for(FrameTableEntry frame = tail; frame != null; frame = frame.lruPrev)
+        {
+            if((frame.getPage() != null) && (!frame.isReserved()) && (frame.getLockCount() <= 0))
+            {
+                return frame;
+            }
+        }
+        return null;
+    }
+
+    private void unlink(FrameTableEntry frame)
+    {
+        if(!frame.inLRUList)
+        {
+            return;
+        }
+        if(frame.lruPrev != null)
+        {
+            frame.lruPrev.lruNext = frame.lruNext;
+        }
+        else
+        {
+            head = frame.lruNext;
+        }
+        if(frame.lruNext != null)
+        {
+            frame.lruNext.lruPrev = frame.lruPrev;
+        }
+        else
+        {
+            tail = frame.lruPrev;
+        }
+        frame.lruPrev = null;
+        frame.lruNext = null;
+        frame.inLRUList = false;
+    }
+}
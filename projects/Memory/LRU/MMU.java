@@ -24,18 +24,19 @@ public class MMU extends IflMMU
         @OSPProject Memory
     */
 	
-	public static ArrayList<FrameTableEntry> LRUreferencestring;
+	public static LRUList LRUlist;
+	public static FramePool framePool;
 	public static int pagefaultcount = 0;
-	public static int p;
     public static void init()
     {
-        for(int i = 0; i < MMU.getFrameTableSize(); i++)
+        framePool = new FramePool(MMU.getFrameTableSize());
+        for(int i = MMU.getFrameTableSize() - 1; i >= 0; i--)
     	{
         	setFrame(i, new FrameTableEntry(i));
+        	framePool.release(getFrame(i));
         }
 		
-		LRUreferencestring = new ArrayList<FrameTableEntry>();
-		p=LRUreferencestring.size()-1;
+		LRUlist = new LRUList();
     }
 
     /**
@@ -84,7 +85,7 @@ public class MMU extends IflMMU
 		}
 		else
 		{
-         MMU.LRUreferencestring.add(PTE.getFrame());
+         MMU.LRUlist.touch(PTE.getFrame());
 		}
 		
 		PTE.getFrame().setReferenced(true);
@@ -92,26 +92,13 @@ import osp.IFLModules.*;
 public static int lru(ThreadCB thread,PageTableEntry page)
 {
     	FrameTableEntry newFrame = null;
-		FrameTableEntry Framecomparator = null;
-		int j= -1, i=0;
-		while(i < MMU.getFrameTableSize())
-    	{
-    		newFrame = MMU.getFrame(i);
-    		if((newFrame.isReserved()) || (newFrame.getLockCount()> 0))
-    		{
-				j++;
-			}
-			i++;
-		}
-		if(j == MMU.getFrameTableSize())
+		if(MMU.framePool.isExhausted())
 		{
 			return NotEnoughMemory;
 		}
 		
-    	for(int y = 0; y < MMU.getFrameTableSize(); y++)
-    	{
-    		newFrame = MMU.getFrame(y);
-    		if((newFrame.getPage() == null) && (!newFrame.isReserved()) && (newFrame.getLockCount() <= 0))
+    	newFrame = MMU.framePool.takeFree();
+    		if(newFrame != null)
     		{
 				Event pfevent = reserveThread(thread, page, newFrame);
 				
@@ -129,38 +116,15 @@ public static int lru(ThreadCB thread,PageTableEntry page)
     	        newFrame.setPage(page);
     	        page.setValid(true);
     	        
-				MMU.LRUreferencestring.add(newFrame);
+				MMU.LRUlist.touch(newFrame);
 				releaseThread(pfevent, page, newFrame, thread);
 				
 				ThreadCB.dispatch();
     	        return SUCCESS;
     		}
-    	}
 		
-		MMU.p = MMU.LRUreferencestring.size()-1;
-		for(int k = 0; k< MMU.getFrameTableSize(); k++)
-    	{
-    		newFrame = MMU.getFrame(k);
-    		if((newFrame.getPage() != null) && (!newFrame.isReserved()) && (newFrame.getLockCount() <= 0))
-    		{
-				innerloop:
-				for(int x= MMU.LRUreferencestring.size()-1; x>= 0; x--)	
-		        {
-		           	Framecomparator = MMU.LRUreferencestring.get(x);
-					if(newFrame.equals(Framecomparator))
-					{
-						if(x<MMU.p)
-						{
-							MMU.p=x;
-						}
-						break innerloop;
-					}
-				}
-			}
-		}
-		
-			newFrame = MMU.LRUreferencestring.get(MMU.p);
-			if((newFrame.getPage() != null) && (!newFrame.isReserved()) && (newFrame.getLockCount() <= 0))
+		newFrame = MMU.LRUlist.victim();
+			if(newFrame != null)
 			{ 
 				Event pfevent = reserveThread(thread, page, newFrame);
 				
@@ -196,7 +160,7 @@ public static int lru(ThreadCB thread,PageTableEntry page)
     	       newFrame.setPage(page);
     	       page.setValid(true);
     	       
-			   MMU.LRUreferencestring.add(newFrame);
+			   MMU.LRUlist.touch(newFrame);
     	       releaseThread(pfevent, page, newFrame, thread);
 				
 			   ThreadCB.dispatch();
@@ -212,7 +176,7 @@ public static int lru(ThreadCB thread,PageTableEntry page)
 		Event pfevent = new SystemEvent("Kernel mode switching-PageFaultHappened");
     	thread.suspend(pfevent);
     	page.setValidatingThread(thread);
-    	newFrame.setReserved(thread.getTask());
+    	newFrame.reserve(thread.getTask());
 		return pfevent;
 	}
 	
@@ -220,7 +184,7 @@ public static int lru(ThreadCB thread,PageTableEntry page)
     {
 		if(newFrame.getReserved() == thread.getTask())
     	{
-    	    newFrame.setUnreserved(thread.getTask());    		
+    	    newFrame.unreserve(thread.getTask());    		
     	}
 		page.setValidatingThread(null);
     	page.notifyThreads();
@@ -245,7 +209,11 @@ public static int lru(ThreadCB thread,PageTableEntry page)
 		page.setFrame(null);
 	    page.notifyThreads();
         pfevent.notifyThreads();
-		newFrame.setPage(null);
+		if((newFrame.getPage() == null) || (newFrame.getPage() == page))
+		{
+			MMU.LRUlist.remove(newFrame);
+			newFrame.releasePage();
+		}
 	}
 	
 	public static void swapOutCleanup(Event pfevent, PageTableEntry page)
@@ -50,11 +50,16 @@ public class PageTable extends IflPageTable
         	PageTableEntry page = frame.getPage();
         	if(page != null && page.getTask() == pagetableTask)
         	{
-        		frame.setPage(null);
+        		MMU.LRUlist.remove(frame);
                 frame.setDirty(false);
                 frame.setReferenced(false);
                 if(frame.getReserved() == pagetableTask)
-        			frame.setUnreserved(pagetableTask);
+        			frame.unreserve(pagetableTask);
+        		frame.releasePage();
+        	}
+        	else if(frame.getReserved() == pagetableTask)
+        	{
+        		frame.unreserve(pagetableTask);
         	}
         }
 
@@ -73,9 +73,9 @@ public class PageTableEntry extends IflPageTableEntry
     	}
 		else
 		{
-         MMU.LRUreferencestring.add(getFrame());
+         MMU.LRUlist.touch(getFrame());
 		}
-    	getFrame().incrementLockCount();
+    	getFrame().lock();
     	return SUCCESS;
     }
 
@@ -94,7 +94,7 @@ public class PageTableEntry extends IflPageTableEntry
 		}
 		else
 		{
-			 getFrame().decrementLockCount();
+			 getFrame().unlock();
 		}
     }
 
@@ -0,0 +1,164 @@
+package osp.Memory;
+
+import java.util.*;
+import osp.Tasks.*;
+import osp.Utilities.*;
+
+/**
+    Adaptive Replacement Cache (Megiddo and Modha). Resident pages are
+    kept on T1 (seen once recently) and T2 (seen at least twice); pages
+    evicted from them are remembered, without a frame, on the ghost lists
+    B1 and B2. A fault on a B1 ghost means T1 was too small and grows the
+    target size p of T1, a fault on a B2 ghost shrinks it, so a scan only
+    churns T1 while the working set stays in T2.
+
+    Each list is a LinkedHashSet in LRU order, oldest first, so every
+    move is O(1). The ghost lists are trimmed so that T1+B1 stays within
+    the frame table size c and all four lists within 2c.
+
+    @OSPProject Memory
+*/
+public class ARCPolicy implements ReplacementPolicy
+{
+    private LinkedHashSet<PageTableEntry> t1 = new LinkedHashSet<PageTableEntry>();
+    private LinkedHashSet<PageTableEntry> t2 = new LinkedHashSet<PageTableEntry>();
+    private LinkedHashSet<PageTableEntry> b1 = new LinkedHashSet<PageTableEntry>();
+    private LinkedHashSet<PageTableEntry> b2 = new LinkedHashSet<PageTableEntry>();
+
+    private int c;
+    private int p;
+
+    public ARCPolicy()
+    {
+        c = MMU.getFrameTableSize();
+        p = 0;
+    }
+
+    /**
+       A hit moves the page to the most recently used end of T2.
+
+       @OSPProject Memory
+    */
+    public void onReference(FrameTableEntry frame, int referenceType)
+    {
+        PageTableEntry page = frame.getPage();
+        if(page != null && (t1.remove(page) || t2.remove(page)))
+        {
+            t2.add(page);
+        }
+    }
+
+    /**
+       A miss: adapts p if the page is a ghost, then makes it resident.
+
+       @OSPProject Memory
+    */
+    public void onLoad(FrameTableEntry frame)
+    {
+        PageTableEntry page = frame.getPage();
+
+        if(b1.remove(page))
+        {
+            p = Math.min(c, p + Math.max(b2.size() / Math.max(b1.size(), 1), 1));
+            t2.add(page);
+        }
+        else if(b2.remove(page))
+        {
+            p = Math.max(0, p - Math.max(b1.size() / Math.max(b2.size(), 1), 1));
+            t2.add(page);
+        }
+        else
+        {
+            t1.add(page);
+        }
+        trimGhosts();
+    }
+
+    /**
+       A victim leaves a ghost behind on B1 or B2. Pages of a task that
+       is going away are simply forgotten.
+
+       @OSPProject Memory
+    */
+    public void onEvict(FrameTableEntry frame)
+    {
+        PageTableEntry page = frame.getPage();
+        if(page == null)
+        {
+            return;
+        }
+        boolean live = page.getTask().getStatus() == GlobalVariables.TaskLive;
+
+        if(t1.remove(page))
+        {
+            if(live)
+            {
+                b1.add(page);
+            }
+        }
+        else if(t2.remove(page))
+        {
+            if(live)
+            {
+                b2.add(page);
+            }
+        }
+        trimGhosts();
+    }
+
+    /**
+       Takes the LRU page of T1 while T1 is above its target p, otherwise
+       the LRU page of T2. Pinned frames are skipped; if the preferred
+       list has nothing to give, the other one is used.
+
+       @OSPProject Memory
+    */
+    public FrameTableEntry selectVictim(TaskCB task)
+    {
+        boolean fromT1 = !t1.isEmpty() && (t1.size() > p || t2.isEmpty());
+        FrameTableEntry frame = lruReplaceable(fromT1 ? t1 : t2, task);
+        if(frame == null)
+        {
+            frame = lruReplaceable(fromT1 ? t2 : t1, task);
+        }
+        return frame;
+    }
+
+    private static FrameTableEntry lruReplaceable(LinkedHashSet<PageTableEntry> list, TaskCB task)
+    {
+        for(PageTableEntry page : list)
+        {
+            FrameTableEntry frame = page.getFrame();
+            if(frame != null && frame.getPage() == page && frame.isReplaceableFor(task))
+            {
+                return frame;
+            }
+        }
+        return null;
+    }
+
+    private void trimGhosts()
+    {
+        while(!b1.isEmpty() && t1.size() + b1.size() > c)
+        {
+            removeOldest(b1);
+        }
+        while(!b2.isEmpty() && t1.size() + t2.size() + b1.size() + b2.size() > 2 * c)
+        {
+            removeOldest(b2);
+        }
+    }
+
+    private static void removeOldest(LinkedHashSet<PageTableEntry> list)
+    {
+        Iterator<PageTableEntry> it = list.iterator();
+        it.next();
+        it.remove();
+    }
+
+    public String toString()
+    {
+        return "ARC: T1 target " + p + ", T1 " + t1.size() + ", T2 " + t2.size()
+               + ", B1 " + b1.size() + ", B2 " + b2.size();
+    }
+}
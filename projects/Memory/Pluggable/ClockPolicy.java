@@ -0,0 +1,70 @@
+package osp.Memory;
+
+import osp.Tasks.*;
+
+/**
+    Second chance replacement as a CLOCK: the frame table itself is the
+    circular buffer of frame indices and the hand stays where the last
+    victim was taken. A referenced frame has its reference bit cleared as
+    the hand passes it; nothing is moved or re-queued, so a fault costs
+    O(1) amortized. MMU.do_refer() sets the reference bits, so the hooks
+    have nothing to do. The hand reads the bits from MMU.frameState and
+    only looks at the frames that are referenced or not pinned.
+
+    @OSPProject Memory
+*/
+public class ClockPolicy implements ReplacementPolicy
+{
+    private int hand = 0;
+
+    public void onReference(FrameTableEntry frame, int referenceType)
+    {
+    }
+
+    public void onLoad(FrameTableEntry frame)
+    {
+    }
+
+    public void onEvict(FrameTableEntry frame)
+    {
+    }
+
+    /**
+       Advances the hand to the next frame that is replaceable and not
+       referenced. Two turns are enough to clear every reference bit, so
+       null after that means no frame can be replaced. For local
+       replacement the frames of other tasks are passed untouched.
+
+       @OSPProject Memory
+    */
+    public FrameTableEntry selectVictim(TaskCB task)
+    {
+        int size = MMU.getFrameTableSize();
+        FrameState state = MMU.frameState;
+
+        for(int n = 0; n < 2 * size; n++)
+        {
+            int i = hand;
+            hand = (hand + 1) % size;
+
+            if(state.isPinned(i) && !state.isReferenced(i))
+            {
+                continue;
+            }
+            FrameTableEntry frame = MMU.getFrame(i);
+            if(frame.getPage() == null || (task != null && frame.getPage().getTask() != task))
+            {
+                continue;
+            }
+            if(frame.isReferenced())
+            {
+                frame.markReferenced(false);
+            }
+            else if(frame.isReplaceableFor(task))
+            {
+                return frame;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,176 @@
+package osp.Memory;
+
+import java.util.*;
+import osp.Tasks.*;
+import osp.Utilities.*;
+
+/**
+    The DirtyPool keeps dirty victims in memory for a while instead of
+    writing them out on the fault path, like the modified page list of
+    VMS. When the replacement policy offers a dirty frame, the frame is
+    parked here and the policy is asked again, until it offers a clean
+    frame. Parked pages stay valid in their frames, so a reference to
+    one takes no page fault and simply takes it back out of the pool.
+
+    The pool holds at most DirtyPoolSize frames (a key of the [Memory]
+    section, 0 or missing turns it off) in the order they were parked.
+    When it is full, the oldest parked frame that is not pinned is given
+    to the fault instead and written out as usual. The PageCleaner writes
+    parked frames back first, and a frame that is clean again leaves the
+    pool.
+
+    @OSPProject Memory
+*/
+public class DirtyPool
+{
+    private int capacity;
+    private LinkedHashSet<FrameTableEntry> frames = new LinkedHashSet<FrameTableEntry>();
+
+    private int parkcount = 0;
+    private int reusecount = 0;
+    private int spillcount = 0;
+
+    public DirtyPool(int capacity)
+    {
+        this.capacity = capacity;
+    }
+
+    /**
+       Creates the pool for the DirtyPoolSize parameter, or returns null
+       if it is 0 or missing.
+
+       @OSPProject Memory
+    */
+    public static DirtyPool create()
+    {
+        int capacity = MemoryParams.getInt("Memory", "DirtyPoolSize", 0);
+        return (capacity > 0) ? new DirtyPool(capacity) : null;
+    }
+
+    /**
+       Parks the dirty victim and returns the frame the fault should use
+       in its place: the next clean victim of the policy, or the oldest
+       parked frame when the pool is full or the policy has nothing else.
+
+       @param task passed on to ReplacementPolicy.selectVictim()
+
+       @OSPProject Memory
+    */
+    public FrameTableEntry substitute(FrameTableEntry victim, TaskCB task)
+    {
+        while(victim.isDirty() && !victim.parked)
+        {
+            if(frames.size() >= capacity)
+            {
+                FrameTableEntry oldest = oldestParked();
+                if(oldest == null)
+                {
+                    break;
+                }
+                park(victim);
+                victim = oldest;
+                break;
+            }
+            park(victim);
+            FrameTableEntry next = MMU.policy.selectVictim(task);
+            if(next == null)
+            {
+                victim = oldestParked();
+                break;
+            }
+            victim = next;
+        }
+        remove(victim);
+        if(victim.isDirty())
+        {
+            spillcount++;
+        }
+        return victim;
+    }
+
+    /**
+       Returns the oldest parked frame that is still dirty and may be
+       written back, or null. Frames found clean leave the pool.
+
+       @OSPProject Memory
+    */
+    public FrameTableEntry nextWriteBack()
+    {
+        Iterator<FrameTableEntry> it = frames.iterator();
+        while(it.hasNext())
+        {
+            FrameTableEntry frame = it.next();
+            if(!frame.isDirty())
+            {
+                it.remove();
+                frame.parked = false;
+            }
+            else if(frame.isReplaceable())
+            {
+                return frame;
+            }
+        }
+        return null;
+    }
+
+    /**
+       Takes the frame out of the pool because its page is in use again.
+
+       @OSPProject Memory
+    */
+    public void onReference(FrameTableEntry frame)
+    {
+        if(frame.parked)
+        {
+            remove(frame);
+            reusecount++;
+        }
+    }
+
+    /**
+       Takes the frame out of the pool because its page leaves it.
+
+       @OSPProject Memory
+    */
+    public void remove(FrameTableEntry frame)
+    {
+        if(frame != null && frame.parked)
+        {
+            frames.remove(frame);
+            frame.parked = false;
+        }
+    }
+
+    /**
+       Returns the oldest parked frame that is not pinned, or null. The
+       page fault handler falls back on it when every frame the policy
+       may offer is pinned or parked.
+
+       @OSPProject Memory
+    */
+    public FrameTableEntry oldestParked()
+    {
+        for(FrameTableEntry frame : frames)
+        {
+            if(frame.isReplaceable())
+            {
+                return frame;
+            }
+        }
+        return null;
+    }
+
+    public String toString()
+    {
+        return "Dirty pool holds " + frames.size() + " of " + capacity + " frames; "
+               + parkcount + " parked, " + reusecount + " referenced again, "
+               + spillcount + " written on a fault";
+    }
+
+    private void park(FrameTableEntry frame)
+    {
+        frames.add(frame);
+        frame.parked = true;
+        parkcount++;
+    }
+}
@@ -0,0 +1,33 @@
+package osp.Memory;
+
+import osp.Tasks.*;
+
+/**
+    First in, first out: the victim is the page that was loaded longest
+    ago. References do not change the order.
+
+    @OSPProject Memory
+*/
+public class FIFOPolicy implements ReplacementPolicy
+{
+    private FrameList queue = new FrameList();
+
+    public void onReference(FrameTableEntry frame, int referenceType)
+    {
+    }
+
+    public void onLoad(FrameTableEntry frame)
+    {
+        queue.touch(frame);
+    }
+
+    public void onEvict(FrameTableEntry frame)
+    {
+        queue.remove(frame);
+    }
+
+    public FrameTableEntry selectVictim(TaskCB task)
+    {
+        return queue.victim(task);
+    }
+}
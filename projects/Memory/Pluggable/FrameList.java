@@ -0,0 +1,105 @@
+package osp.Memory;
+
+import osp.Tasks.*;
+
+/**
+    The FrameList class is a doubly-linked list of frames whose links live
+    in the frames themselves, so moving a frame to the head or taking it
+    off is O(1) and the list never holds more than the frame table. FIFO
+    puts a frame at the head when it is loaded, LRU also on every
+    reference; either way the victim is looked for from the tail.
+
+    @OSPProject Memory
+*/
+public class FrameList
+{
+    private FrameTableEntry head;
+    private FrameTableEntry tail;
+
+    /**
+       Moves the frame to the head of the list,
+       linking it in if it is not on the list yet.
+
+       @OSPProject Memory
+    */
+    public void touch(FrameTableEntry frame)
+    {
+        if(frame == null || frame == head)
+        {
+            return;
+        }
+        unlink(frame);
+
+        frame.listNext = head;
+        if(head != null)
+        {
+            head.listPrev = frame;
+        }
+        head = frame;
+        if(tail == null)
+        {
+            tail = frame;
+        }
+        frame.inFrameList = true;
+    }
+
+    /**
+       Takes the frame off the list, e.g. when its page goes away.
+
+       @OSPProject Memory
+    */
+    public void remove(FrameTableEntry frame)
+    {
+        if(frame != null)
+        {
+            unlink(frame);
+        }
+    }
+
+    /**
+       Returns the frame closest to the tail that can be replaced, or
+       null if there is no such frame. Frames pinned at the tail are
+       stepped over, and so are frames of other tasks if task is not
+       null.
+
+       @OSPProject Memory
+    */
+    public FrameTableEntry victim(TaskCB task)
+    {
+        for(FrameTableEntry frame = tail; frame != null; frame = frame.listPrev)
+        {
+            if(frame.isReplaceableFor(task))
+            {
+                return frame;
+            }
+        }
+        return null;
+    }
+
+    private void unlink(FrameTableEntry frame)
+    {
+        if(!frame.inFrameList)
+        {
+            return;
+        }
+        if(frame.listPrev != null)
+        {
+            frame.listPrev.listNext = frame.listNext;
+        }
+        else
+        {
+            head = frame.listNext;
+        }
+        if(frame.listNext != null)
+        {
+            frame.listNext.listPrev = frame.listPrev;
+        }
+        else
+        {
+            tail = frame.listPrev;
+        }
+        frame.listPrev = null;
+        frame.listNext = null;
+        frame.inFrameList = false;
+    }
+}
@@ -0,0 +1,192 @@
+package osp.Memory;
+
+/**
+    The FramePool class keeps the free frames on a stack and live counts
+    of the reserved and locked frames, so that the page fault handler can
+    tell in O(1) whether a free frame exists or memory is exhausted. The
+    counts follow the transitions made through FrameTableEntry.reserve(),
+    unreserve(), lock(), unlock() and releasePage(), and so do the pinned
+    bits of MMU.frameState.
+
+    @OSPProject Memory
+*/
+public class FramePool
+{
+    private FrameTableEntry[] free;
+    private int freeCount;
+    private int reservedCount;
+    private int lockedCount;
+    private int pinnedCount;
+
+    public FramePool(int size)
+    {
+        free = new FrameTableEntry[size];
+        freeCount = 0;
+    }
+
+    /**
+       Pops a frame that holds no page and is neither reserved nor
+       locked, or returns null if there is none. Frames that were taken
+       into use since they were pushed are dropped on the way.
+
+       @OSPProject Memory
+    */
+    public FrameTableEntry takeFree()
+    {
+        while(freeCount > 0)
+        {
+            FrameTableEntry frame = free[--freeCount];
+            free[freeCount] = null;
+            frame.inFramePool = false;
+            if(isFree(frame))
+            {
+                return frame;
+            }
+        }
+        return null;
+    }
+
+    /**
+       Returns the first run of length frames that starts at a multiple
+       of length in the frame table and holds only free frames or, if
+       withClean is set, also frames of clean pages the policy may
+       replace. Returns null if memory is too fragmented for one. Free
+       frames stay on the free stack; they stop being free as soon as
+       the caller reserves them.
+
+       @OSPProject Memory
+    */
+    public FrameTableEntry[] findRun(int length, boolean withClean)
+    {
+        int size = MMU.getFrameTableSize();
+        for(int base = 0; base + length <= size; base += length)
+        {
+            int i = base;
+            while(i < base + length && !MMU.frameState.isPinned(i)
+                  && (isFree(MMU.getFrame(i))
+                      || (withClean && MMU.getFrame(i).isReplaceableFor(null) && !MMU.getFrame(i).isDirty())))
+            {
+                i++;
+            }
+            if(i == base + length)
+            {
+                FrameTableEntry[] run = new FrameTableEntry[length];
+                for(int j = 0; j < length; j++)
+                {
+                    run[j] = MMU.getFrame(base + j);
+                }
+                return run;
+            }
+        }
+        return null;
+    }
+
+    /**
+       Puts the frame back on the free stack if it is free now.
+
+       @OSPProject Memory
+    */
+    public void release(FrameTableEntry frame)
+    {
+        if(!frame.inFramePool && isFree(frame))
+        {
+            frame.inFramePool = true;
+            free[freeCount++] = frame;
+        }
+    }
+
+    /**
+       Accounts for a reserve or lock transition of the frame, given the
+       state it was in before.
+
+       @OSPProject Memory
+    */
+    public void update(FrameTableEntry frame, boolean wasReserved, boolean wasLocked)
+    {
+        boolean reserved = frame.isReserved();
+        boolean locked = frame.getLockCount() > 0;
+
+        if(reserved != wasReserved)
+        {
+            reservedCount += reserved ? 1 : -1;
+        }
+        if(locked != wasLocked)
+        {
+            lockedCount += locked ? 1 : -1;
+        }
+        if((reserved || locked) != (wasReserved || wasLocked))
+        {
+            pinnedCount += (reserved || locked) ? 1 : -1;
+        }
+        MMU.frameState.copy(frame);
+        release(frame);
+    }
+
+    /**
+       True if every frame is reserved or locked, i.e. no frame can be
+       given to a page fault.
+
+       @OSPProject Memory
+    */
+    public boolean isExhausted()
+    {
+        if(pinnedCount >= MMU.getFrameTableSize())
+        {
+            recount();
+        }
+        return pinnedCount >= MMU.getFrameTableSize();
+    }
+
+    public int getFreeCount()
+    {
+        return freeCount;
+    }
+
+    public int getReservedCount()
+    {
+        return reservedCount;
+    }
+
+    public int getLockedCount()
+    {
+        return lockedCount;
+    }
+
+    /**
+       Recomputes the counts from the frame table. OSP may unreserve a
+       frame behind our back when a task dies, so a full table is
+       double-checked before a fault is refused.
+    */
+    private void recount()
+    {
+        reservedCount = 0;
+        lockedCount = 0;
+        pinnedCount = 0;
+        for(int i = 0; i < MMU.getFrameTableSize(); i++)
+        {
+            FrameTableEntry frame = MMU.getFrame(i);
+            boolean reserved = frame.isReserved();
+            boolean locked = frame.getLockCount() > 0;
+
+            if(reserved)
+            {
+                reservedCount++;
+            }
+            if(locked)
+            {
+                lockedCount++;
+            }
+            if(reserved || locked)
+            {
+                pinnedCount++;
+            }
+            MMU.frameState.copy(frame);
+            release(frame);
+        }
+    }
+
+    private static boolean isFree(FrameTableEntry frame)
+    {
+        return (frame.getPage() == null) && (!frame.isReserved()) && (frame.getLockCount() <= 0);
+    }
+}
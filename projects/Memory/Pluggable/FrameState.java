@@ -0,0 +1,132 @@
+package osp.Memory;
+
+/**
+    FrameState keeps the dirty and reference bits and the pinned state
+    (reserved or locked) of every frame in bitsets indexed by frame ID,
+    so that the scans of the replacement policies and the PageCleaner
+    sweep through a few words instead of calling into every
+    FrameTableEntry.
+
+    The state is copied from the frame where it changes: in
+    FrameTableEntry.markDirty() and markReferenced(), and by FramePool at
+    every reserve and lock transition. OSP still changes frames behind
+    our back (it unreserves the frames of a dying task, and the disk
+    interrupt handler sets dirty and reference bits), so a bit only
+    nominates a frame; callers check the FrameTableEntry itself before
+    acting on it.
+
+    @OSPProject Memory
+*/
+public class FrameState
+{
+    private int size;
+    private long[] dirty;
+    private long[] referenced;
+    private long[] pinned;
+
+    public FrameState(int size)
+    {
+        this.size = size;
+        int words = (size + 63) >>> 6;
+        dirty = new long[words];
+        referenced = new long[words];
+        pinned = new long[words];
+    }
+
+    public boolean isDirty(int frame)
+    {
+        return get(dirty, frame);
+    }
+
+    public boolean isReferenced(int frame)
+    {
+        return get(referenced, frame);
+    }
+
+    public boolean isPinned(int frame)
+    {
+        return get(pinned, frame);
+    }
+
+    /*
+       Copies the whole state of the frame. The disk interrupt handler
+       sets the dirty and reference bits of a page it has read into
+       right after unlocking it, so those are only picked up here, at
+       the next reference to the page or transition of the frame.
+    */
+    void copy(FrameTableEntry frame)
+    {
+        int id = frame.getID();
+        set(dirty, id, frame.isDirty());
+        set(referenced, id, frame.isReferenced());
+        set(pinned, id, frame.isReserved() || frame.getLockCount() > 0);
+    }
+
+    /**
+       Returns the first frame at or after from that is dirty and not
+       pinned, and not referenced either if unreferenced is set, or -1.
+
+       @OSPProject Memory
+    */
+    public int nextDirty(int from, boolean unreferenced)
+    {
+        for(int w = from >>> 6; w < dirty.length; w++)
+        {
+            long bits = dirty[w] & ~pinned[w];
+            if(unreferenced)
+            {
+                bits &= ~referenced[w];
+            }
+            if(w == from >>> 6)
+            {
+                bits &= -1L << (from & 63);
+            }
+            if(bits != 0)
+            {
+                int frame = (w << 6) + Long.numberOfTrailingZeros(bits);
+                return (frame < size) ? frame : -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+       Returns the first frame at or after from that is not pinned, or -1.
+
+       @OSPProject Memory
+    */
+    public int nextUnpinned(int from)
+    {
+        for(int w = from >>> 6; w < pinned.length; w++)
+        {
+            long bits = ~pinned[w];
+            if(w == from >>> 6)
+            {
+                bits &= -1L << (from & 63);
+            }
+            if(bits != 0)
+            {
+                int frame = (w << 6) + Long.numberOfTrailingZeros(bits);
+                return (frame < size) ? frame : -1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean get(long[] bits, int frame)
+    {
+        return (bits[frame >>> 6] & (1L << frame)) != 0;
+    }
+
+    private static void set(long[] bits, int frame, boolean value)
+    {
+        if(value)
+        {
+            bits[frame >>> 6] |= 1L << frame;
+        }
+        else
+        {
+            bits[frame >>> 6] &= ~(1L << frame);
+        }
+    }
+}
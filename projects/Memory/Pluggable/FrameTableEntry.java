@@ -0,0 +1,190 @@
+package osp.Memory;
+
+/**
+    The FrameTableEntry class contains information about a specific page
+    frame of memory.
+
+    @OSPProject Memory
+*/
+import osp.Tasks.*;
+import osp.Interrupts.*;
+import osp.Utilities.*;
+import osp.IFLModules.IflFrameTableEntry;
+
+public class FrameTableEntry extends IflFrameTableEntry
+{
+    /**
+       The frame constructor. Must have
+
+       	   super(frameID)
+	   
+       as its first statement.
+
+       @OSPProject Memory
+    */
+    public FrameTableEntry(int frameID)
+    {
+       super(frameID);
+    }
+
+
+    /**
+       Reserves the frame for the task and keeps MMU.framePool up to date.
+
+       @OSPProject Memory
+    */
+    public void reserve(TaskCB task)
+    {
+        boolean wasReserved = isReserved();
+        boolean wasLocked = getLockCount() > 0;
+        setReserved(task);
+        task.getPageTable().addReserved(this);
+        MMU.framePool.update(this, wasReserved, wasLocked);
+    }
+
+    /**
+       Unreserves the frame if the task holds it and keeps MMU.framePool
+       up to date.
+
+       @OSPProject Memory
+    */
+    public void unreserve(TaskCB task)
+    {
+        boolean wasReserved = isReserved();
+        boolean wasLocked = getLockCount() > 0;
+        setUnreserved(task);
+        task.getPageTable().removeReserved(this);
+        MMU.framePool.update(this, wasReserved, wasLocked);
+    }
+
+    /**
+       Increments the lock count and keeps MMU.framePool up to date.
+
+       @OSPProject Memory
+    */
+    public void lock()
+    {
+        boolean wasReserved = isReserved();
+        boolean wasLocked = getLockCount() > 0;
+        incrementLockCount();
+        MMU.framePool.update(this, wasReserved, wasLocked);
+    }
+
+    /**
+       Decrements the lock count and keeps MMU.framePool up to date.
+
+       @OSPProject Memory
+    */
+    public void unlock()
+    {
+        boolean wasReserved = isReserved();
+        boolean wasLocked = getLockCount() > 0;
+        decrementLockCount();
+        MMU.framePool.update(this, wasReserved, wasLocked);
+    }
+
+    /**
+       Sets the dirty bit and keeps MMU.frameState up to date.
+
+       @OSPProject Memory
+    */
+    public void markDirty(boolean dirty)
+    {
+        setDirty(dirty);
+        MMU.frameState.copy(this);
+    }
+
+    /**
+       Sets the reference bit and keeps MMU.frameState up to date.
+
+       @OSPProject Memory
+    */
+    public void markReferenced(boolean referenced)
+    {
+        setReferenced(referenced);
+        MMU.frameState.copy(this);
+    }
+
+    /**
+       Detaches the page from the frame and hands the frame back to
+       MMU.framePool if nothing else holds it.
+
+       @OSPProject Memory
+    */
+    public void releasePage()
+    {
+        setPage(null);
+        prefetched = false;
+        MMU.framePool.release(this);
+    }
+
+    /**
+       True if the frame holds a page and is neither reserved nor locked,
+       i.e. a replacement policy may pick it as a victim.
+
+       @OSPProject Memory
+    */
+    public boolean isReplaceable()
+    {
+        return (getPage() != null) && (!isReserved()) && (getLockCount() <= 0);
+    }
+
+    /**
+       True if the frame is replaceable, neither parked in the DirtyPool
+       nor being reclaimed by the PageCleaner and, unless task is null,
+       holds a page of the task.
+
+       @OSPProject Memory
+    */
+    public boolean isReplaceableFor(TaskCB task)
+    {
+        return isReplaceable() && !parked && !reclaiming && (task == null || getPage().getTask() == task);
+    }
+
+    boolean inFramePool;
+
+    /*
+       Set by PageCleaner when it starts writing the page back and
+       cleared by a store to the page, so that a page written to while
+       the write is in progress stays dirty.
+    */
+    boolean cleanPending;
+
+    /*
+       Set while the page in this frame was prefetched and has not been
+       referenced yet, see Prefetcher.
+    */
+    boolean prefetched;
+
+    /*
+       Set while the frame is parked in MMU.dirtyPool.
+    */
+    boolean parked;
+
+    /*
+       Set while PageCleaner.reclaim() collects the victims of one pass.
+    */
+    boolean reclaiming;
+
+    /*
+       Virtual time (CPU time of the owning task) of the last use of the
+       page in this frame, kept by WSClockPolicy.
+    */
+    long lastUse;
+
+    /*
+       Links of the FrameList this frame is on, if any.
+    */
+    FrameTableEntry listPrev;
+    FrameTableEntry listNext;
+    boolean inFrameList;
+
+    /*
+       Feel free to add methods/fields to improve the readability of your code
+    */
+
+}
+
+/*
+      Feel free to add local classes to improve the readability of your code
+*/
@@ -0,0 +1,175 @@
+package osp.Memory;
+
+import osp.Tasks.*;
+import osp.Threads.*;
+import osp.Utilities.*;
+
+/**
+    HugePages maps aligned runs of 2^HugePageOrder pages (a key of the
+    [Memory] section, 0 or missing turns it off) into runs of contiguous
+    frames. When a page faults and no page of its run is resident or on
+    its way in, the whole run is read in by the one fault, into a free
+    frame run that starts at a multiple of the run length in the frame
+    table. The TLB caches one entry for the pages of such a run, see
+    TLB; pages that fell back to single frames get an entry each.
+
+    If no free frame run is left, a run whose frames are free or hold
+    clean pages the policy may replace is taken, and those pages are
+    evicted. If there is none either, or part of the page run is already
+    resident, the fault falls back to a single page (and the Prefetcher,
+    if enabled). Pages of a run are still evicted one at a time: OSP
+    keeps one page per frame and one swap IORB per page, so a run is a
+    unit of allocation and of swap-in only. Runs are not used with
+    LoadControl, whose quotas count single frames.
+
+    @OSPProject Memory
+*/
+public class HugePages
+{
+    private int runLength;
+    private int mappedcount = 0;
+    private int compactedcount = 0;
+    private int fragmentedcount = 0;
+    private int partialcount = 0;
+
+    public HugePages(int order)
+    {
+        runLength = 1 << order;
+    }
+
+    /**
+       Creates huge-page mode for the HugePageOrder parameter, or returns
+       null if it is 0 or missing.
+
+       @OSPProject Memory
+    */
+    public static HugePages create()
+    {
+        int order = MemoryParams.getInt("Memory", "HugePageOrder", 0);
+        if(order <= 0 || MMU.loadControl != null)
+        {
+            return null;
+        }
+        MyOut.print("osp.Memory.HugePages", "Huge pages of " + (1 << order) + " pages");
+        return new HugePages(order);
+    }
+
+    public int getRunLength()
+    {
+        return runLength;
+    }
+
+    /**
+       Finds a frame run for the run of the faulting page and
+       reserves all of its frames but the one for the faulting page,
+       which the page fault handler reserves itself. Returns null if the
+       fault has to take a single frame.
+
+       @OSPProject Memory
+    */
+    public FrameTableEntry[] takeRun(PageTableEntry page)
+    {
+        PageTableEntry[] pages = page.getTask().getPageTable().pages;
+        int base = page.getID() & ~(runLength - 1);
+        if(base + runLength > pages.length)
+        {
+            return null;
+        }
+        for(int i = base; i < base + runLength; i++)
+        {
+            if(pages[i] != page && (pages[i].isValid() || pages[i].getValidatingThread() != null))
+            {
+                partialcount++;
+                return null;
+            }
+        }
+
+        FrameTableEntry[] run = MMU.framePool.findRun(runLength, false);
+        if(run == null)
+        {
+            run = MMU.framePool.findRun(runLength, true);
+            if(run == null)
+            {
+                fragmentedcount++;
+                return null;
+            }
+            compactedcount++;
+        }
+        for(int j = 0; j < runLength; j++)
+        {
+            if(base + j != page.getID())
+            {
+                run[j].reserve(page.getTask());
+            }
+        }
+        mappedcount++;
+        return run;
+    }
+
+    /**
+       Reads the other pages of the run into their frames after the
+       faulting page has been swapped in. A page that became valid or
+       started faulting meanwhile keeps its own frame, and so does the
+       clean page in a frame of the run if it was written to or locked
+       meanwhile; that frame of the run is given back.
+
+       @OSPProject Memory
+    */
+    public void fill(ThreadCB thread, PageTableEntry page, FrameTableEntry[] run)
+    {
+        TaskCB task = page.getTask();
+        PageTableEntry[] pages = task.getPageTable().pages;
+        int base = page.getID() & ~(runLength - 1);
+
+        for(int j = 0; j < runLength; j++)
+        {
+            PageTableEntry next = pages[base + j];
+            if(next == page)
+            {
+                continue;
+            }
+            if(thread.getStatus() == GlobalVariables.ThreadKill
+               || next.isValid() || next.getValidatingThread() != null
+               || run[j].getReserved() != task || run[j].isDirty() || run[j].getLockCount() > 0)
+            {
+                release(run[j], task);
+                continue;
+            }
+            next.inRun = PageFaultHandler.readAhead(thread, next, run[j]);
+        }
+    }
+
+    /**
+       Gives back the frames of the run the faulting page did not use,
+       when its fault failed before fill().
+
+       @OSPProject Memory
+    */
+    public void release(FrameTableEntry[] run, PageTableEntry page)
+    {
+        int base = page.getID() & ~(runLength - 1);
+        for(int j = 0; j < runLength; j++)
+        {
+            if(base + j != page.getID())
+            {
+                release(run[j], page.getTask());
+            }
+        }
+    }
+
+    public String toString()
+    {
+        return "Huge pages: " + mappedcount + " runs mapped (" + compactedcount
+               + " by evicting clean pages), " + fragmentedcount
+               + " faults found no frame run, " + partialcount
+               + " found their run partly resident";
+    }
+
+    private static void release(FrameTableEntry frame, TaskCB task)
+    {
+        if(frame.getReserved() == task)
+        {
+            frame.unreserve(task);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package osp.Memory;
+
+import osp.Tasks.*;
+
+/**
+    Least recently used: every reference moves the frame to the head of
+    the recency list and the victim is taken from the tail, both in O(1).
+
+    @OSPProject Memory
+*/
+public class LRUPolicy implements ReplacementPolicy
+{
+    private FrameList recency = new FrameList();
+
+    public void onReference(FrameTableEntry frame, int referenceType)
+    {
+        recency.touch(frame);
+    }
+
+    public void onLoad(FrameTableEntry frame)
+    {
+        recency.touch(frame);
+    }
+
+    public void onEvict(FrameTableEntry frame)
+    {
+        recency.remove(frame);
+    }
+
+    public FrameTableEntry selectVictim(TaskCB task)
+    {
+        return recency.victim(task);
+    }
+}
@@ -0,0 +1,250 @@
+package osp.Memory;
+
+import java.util.*;
+import osp.Tasks.*;
+import osp.Utilities.*;
+
+/**
+    LoadControl gives every task a quota of frames and sizes it by the
+    page fault frequency (PFF) of the task. The fault rate is measured in
+    faults per 1000 ticks of the task's own CPU time, from the interval
+    since its previous fault. Above PFFUpperRate the quota grows by one
+    frame, below PFFLowerRate it shrinks by one. Tasks start with
+    PFFInitialQuota frames. All three are keys of the [Memory] section;
+    PFFUpperRate 0 or missing turns load control off.
+
+    A task at its quota replaces its own pages. A task below its quota
+    takes a free frame, then a frame of the task furthest above its
+    quota, and only then any frame. Free frames are always used first
+    while there are any, raising the quota to match as long as the
+    quotas still fit into memory.
+
+    When the quotas add up to more than FramesOfPhysicalMemory, the most
+    recently activated task is deactivated: its quota drops to 0, so its
+    frames are the first to go, and it keeps running in whatever frames
+    it still holds, replacing only its own pages. OSP threads cannot be
+    parked inside the page fault handler (suspend() does not block, only
+    swap I/O does), so this takes the place of suspending the task.
+    Deactivated tasks are brought back, oldest first, as soon as their
+    initial quota fits again.
+
+    @OSPProject Memory
+*/
+public class LoadControl
+{
+    private int upperRate;
+    private int lowerRate;
+    private int initialQuota;
+
+    private LinkedHashSet<PageTable> active = new LinkedHashSet<PageTable>();
+    private LinkedHashSet<PageTable> inactive = new LinkedHashSet<PageTable>();
+    private int totalQuota = 0;
+    private int deactivatecount = 0;
+
+    public LoadControl(int upperRate, int lowerRate, int initialQuota)
+    {
+        this.upperRate = upperRate;
+        this.lowerRate = lowerRate;
+        this.initialQuota = initialQuota;
+    }
+
+    /**
+       Creates load control as set up in the parameter file, or returns
+       null if PFFUpperRate is 0 or missing.
+
+       @OSPProject Memory
+    */
+    public static LoadControl create()
+    {
+        int upper = MemoryParams.getInt("Memory", "PFFUpperRate", 0);
+        if(upper <= 0)
+        {
+            return null;
+        }
+        int lower = MemoryParams.getInt("Memory", "PFFLowerRate", upper / 4);
+        int quota = MemoryParams.getInt("Memory", "PFFInitialQuota", 4);
+        MyOut.print("osp.Memory.LoadControl", "PFF load control: rates " + lower + ".."
+                    + upper + " faults per 1000 ticks, initial quota " + quota);
+        return new LoadControl(upper, lower, quota);
+    }
+
+    /**
+       Records a page fault on the page and returns the frame to bring
+       it into, or null if no frame can be replaced.
+
+       @OSPProject Memory
+    */
+    public FrameTableEntry selectFrame(PageTableEntry page)
+    {
+        TaskCB task = page.getTask();
+        PageTable table = task.getPageTable();
+        recordFault(table, task);
+
+        int resident = table.getResidentCount();
+        boolean atQuota = (resident >= table.quota);
+        FrameTableEntry frame = null;
+
+        if(atQuota && resident > 0 && (inactive.contains(table) || MMU.framePool.getFreeCount() == 0))
+        {
+            frame = MMU.policy.selectVictim(task);
+        }
+        if(frame == null)
+        {
+            frame = MMU.framePool.takeFree();
+            if(frame != null && atQuota && active.contains(table)
+               && totalQuota + resident + 1 - table.quota <= MMU.getFrameTableSize())
+            {
+                setQuota(table, resident + 1);
+            }
+        }
+        if(frame == null)
+        {
+            PageTable over = mostOverQuota();
+            if(over != null)
+            {
+                frame = MMU.policy.selectVictim(over.getTask());
+            }
+        }
+        if(frame == null)
+        {
+            frame = MMU.policy.selectVictim(null);
+        }
+        return frame;
+    }
+
+    /**
+       True if the task may take another frame without going over its
+       quota, e.g. for a prefetched page.
+
+       @OSPProject Memory
+    */
+    public boolean hasRoom(TaskCB task)
+    {
+        PageTable table = task.getPageTable();
+        return active.contains(table) && table.getResidentCount() < table.quota;
+    }
+
+    /**
+       Forgets the task when its memory is freed and brings back
+       deactivated tasks that fit now.
+
+       @OSPProject Memory
+    */
+    public void onTaskExit(PageTable table)
+    {
+        if(active.remove(table))
+        {
+            totalQuota -= table.quota;
+        }
+        inactive.remove(table);
+        MyOut.print(this, "Task " + table.getTask().getID() + " left with quota " + table.quota
+                    + "; " + active.size() + " tasks active, " + inactive.size()
+                    + " deactivated, " + deactivatecount + " deactivations so far");
+        reactivate();
+    }
+
+    private void recordFault(PageTable table, TaskCB task)
+    {
+        if(!active.contains(table) && !inactive.contains(table))
+        {
+            active.add(table);
+            table.quota = initialQuota;
+            totalQuota += initialQuota;
+        }
+
+        double now = task.getTimeOnCPU();
+        double interval = now - table.lastFaultTime;
+        table.lastFaultTime = now;
+        if(!active.contains(table))
+        {
+            return;
+        }
+
+        double rate = 1000.0 / Math.max(interval, 1.0);
+        if(rate > upperRate && table.quota < MMU.getFrameTableSize())
+        {
+            setQuota(table, table.quota + 1);
+        }
+        else if(rate < lowerRate && table.quota > 1)
+        {
+            setQuota(table, table.quota - 1);
+        }
+    }
+
+    private void setQuota(PageTable table, int quota)
+    {
+        boolean shrinks = (quota < table.quota);
+        totalQuota += quota - table.quota;
+        table.quota = quota;
+
+        if(totalQuota > MMU.getFrameTableSize())
+        {
+            deactivate();
+        }
+        else if(shrinks)
+        {
+            reactivate();
+        }
+    }
+
+    /*
+       Deactivates the most recently activated task, leaving at least
+       one task active.
+    */
+    private void deactivate()
+    {
+        while(totalQuota > MMU.getFrameTableSize() && active.size() > 1)
+        {
+            PageTable newest = null;
+            for(PageTable table : active)
+            {
+                newest = table;
+            }
+            active.remove(newest);
+            totalQuota -= newest.quota;
+            newest.quota = 0;
+            inactive.add(newest);
+            deactivatecount++;
+            MyOut.print(this, "Load control deactivates Task " + newest.getTask().getID()
+                        + "; quotas add up to " + totalQuota + " of "
+                        + MMU.getFrameTableSize() + " frames");
+        }
+    }
+
+    private void reactivate()
+    {
+        Iterator<PageTable> it = inactive.iterator();
+        while(it.hasNext() && totalQuota + initialQuota <= MMU.getFrameTableSize())
+        {
+            PageTable table = it.next();
+            it.remove();
+            active.add(table);
+            table.quota = initialQuota;
+            totalQuota += initialQuota;
+            MyOut.print(this, "Load control reactivates Task " + table.getTask().getID());
+        }
+    }
+
+    private PageTable mostOverQuota()
+    {
+        PageTable over = null;
+        int excess = 0;
+        for(PageTable table : active)
+        {
+            if(table.getResidentCount() - table.quota > excess)
+            {
+                over = table;
+                excess = table.getResidentCount() - table.quota;
+            }
+        }
+        for(PageTable table : inactive)
+        {
+            if(table.getResidentCount() - table.quota > excess)
+            {
+                over = table;
+                excess = table.getResidentCount() - table.quota;
+            }
+        }
+        return over;
+    }
+}
@@ -0,0 +1,214 @@
+package osp.Memory;
+
+import java.util.*;
+import osp.IFLModules.*;
+import osp.Threads.*;
+import osp.Tasks.*;
+import osp.Utilities.*;
+import osp.Hardware.*;
+import osp.Interrupts.*;
+
+/**
+    The MMU class contains the student code that performs the work of
+    handling a memory reference.  It is responsible for calling the
+    interrupt handler if a page fault is required.
+
+    @OSPProject Memory
+*/
+public class MMU extends IflMMU
+{
+    /** 
+        This method is called once before the simulation starts. 
+	Can be used to initialize the frame table and other static variables.
+
+        @OSPProject Memory
+    */
+	
+	public static ReplacementPolicy policy;
+	public static FramePool framePool;
+	public static FrameState frameState;
+	public static Prefetcher prefetcher;
+	public static TLB tlb;
+	public static LoadControl loadControl;
+	public static TraceRecorder trace;
+	public static DirtyPool dirtyPool;
+	public static HugePages hugePages;
+	public static MemoryMetrics metrics;
+	public static int pageOffsetBits;
+	public static int pagefaultcount = 0;
+	public static int swapincount = 0;
+	public static int swapoutcount = 0;
+	public static int swapIOInProgress = 0;
+    public static void init()
+    {
+        frameState = new FrameState(MMU.getFrameTableSize());
+        framePool = new FramePool(MMU.getFrameTableSize());
+        for(int i = MMU.getFrameTableSize() - 1; i >= 0; i--)
+    	{
+        	setFrame(i, new FrameTableEntry(i));
+        	framePool.release(getFrame(i));
+        }
+		
+		String policyName = MemoryParams.get("Memory", "ReplacementPolicy", "LRU");
+		policy = createPolicy(policyName);
+		MyOut.print("osp.Memory.MMU", "Page replacement policy: " + policy.getClass().getSimpleName());
+
+		pageOffsetBits = getVirtualAddressBits() - getPageAddressBits();
+		loadControl = LoadControl.create();
+		hugePages = HugePages.create();
+		tlb = TLB.create();
+		trace = TraceRecorder.create();
+		dirtyPool = DirtyPool.create();
+		prefetcher = new Prefetcher(MemoryParams.getInt("Memory", "PrefetchWindow", 0));
+		PageFaultHandler.dispatchWhenIdle = MemoryParams.get("Memory", "FaultDispatch", "Always").equalsIgnoreCase("Idle");
+		metrics = MemoryMetrics.create();
+		PageCleaner.start();
+    }
+
+    /**
+       Returns the replacement policy named by the ReplacementPolicy
+       parameter; unknown names fall back to LRU with a warning.
+
+       @OSPProject Memory
+    */
+    static ReplacementPolicy createPolicy(String name)
+    {
+        String key = name.replaceAll("[\\s_-]", "").toUpperCase();
+
+        if(key.equals("FIFO"))
+        {
+            return new FIFOPolicy();
+        }
+        if(key.equals("LRU"))
+        {
+            return new LRUPolicy();
+        }
+        if(key.equals("SECONDCHANCE") || key.equals("SCA") || key.equals("CLOCK"))
+        {
+            return new ClockPolicy();
+        }
+        if(key.equals("ARC"))
+        {
+            return new ARCPolicy();
+        }
+        if(key.equals("WSCLOCK"))
+        {
+            return new WSClockPolicy();
+        }
+        MyOut.warning("osp.Memory.MMU", "Unknown ReplacementPolicy " + name + ", using LRU");
+        return new LRUPolicy();
+    }
+
+    /**
+       This method handlies memory references. The method must 
+       calculate, which memory page contains the memoryAddress,
+       determine, whether the page is valid, start page fault 
+       by making an interrupt if the page is invalid, finally, 
+       if the page is still valid, i.e., not swapped out by another 
+       thread while this thread was suspended, set its frame
+       as referenced and then set it as dirty if necessary.
+       (After pagefault, the thread will be placed on the ready queue, 
+       and it is possible that some other thread will take away the frame.)
+       
+       @param memoryAddress A virtual memory address
+       @param referenceType The type of memory reference to perform 
+       @param thread that does the memory access
+       (e.g., MemoryRead or MemoryWrite).
+       @return The referenced page.
+
+       @OSPProject Memory
+    */
+    static public PageTableEntry do_refer(int memoryAddress,
+					  int referenceType, ThreadCB thread)
+    {
+        int pageNo = memoryAddress >>> pageOffsetBits;
+        if(trace != null)
+        {
+            trace.record(thread.getTask().getID(), pageNo, referenceType);
+        }
+        PageTable ptbr = getPTBR();
+        PageTableEntry PTE = (tlb == null) ? null : tlb.lookup(ptbr, pageNo);
+        boolean tlbMiss = (PTE == null);
+        if(tlbMiss)
+        {
+            PTE = ptbr.pages[pageNo];
+        }
+        ptbr.touch(PTE);
+		
+		if(! PTE.isValid())
+		{
+			if(PTE.getValidatingThread() == null)
+			{
+				InterruptVector.setInterruptType(referenceType);
+				InterruptVector.setPage(PTE);
+				InterruptVector.setThread(thread);
+				CPU.interrupt(PageFault);
+			}
+			else
+			{
+				thread.suspend(PTE);
+			}
+			
+			if(thread.getStatus() == GlobalVariables.ThreadKill)
+			{
+				return PTE;
+			}
+		}
+		else
+		{
+         MMU.policy.onReference(PTE.getFrame(), referenceType);
+		}
+		
+		PTE.getFrame().markReferenced(true);
+		MMU.prefetcher.onReference(PTE.getFrame());
+		if(dirtyPool != null)
+		{
+			dirtyPool.onReference(PTE.getFrame());
+		}
+		if(referenceType == GlobalVariables.MemoryWrite)
+		{
+			PTE.getFrame().cleanPending = false;
+			PTE.getFrame().markDirty(true);
+		}
+		if(tlbMiss && tlb != null && PTE.isValid())
+		{
+			tlb.insert(pageNo, PTE);
+		}
+		
+		return PTE;
+    }
+
+    /** Called by OSP after printing an error message. The student can
+	insert code here to print various tables and data structures
+	in their state just after the error happened.  The body can be
+	left empty, if this feature is not used.
+     
+	@OSPProject Memory
+     */
+    public static void atError()
+    {
+        metrics.dump();
+    }
+
+    /** Called by OSP after printing a warning message. The student
+	can insert code here to print various tables and data
+	structures in their state just after the warning happened.
+	The body can be left empty, if this feature is not used.
+     
+      @OSPProject Memory
+     */
+    public static void atWarning()
+    {
+        metrics.dump();
+    }
+
+
+    /*
+       Feel free to add methods/fields to improve the readability of your code
+    */
+
+}
+
+/*
+      Feel free to add local classes to improve the readability of your code
+*/
@@ -0,0 +1,218 @@
+package osp.Memory;
+
+import java.util.*;
+import osp.Hardware.*;
+import osp.IFLModules.*;
+import osp.Threads.*;
+import osp.Utilities.*;
+
+/**
+    MemoryMetrics counts page faults per task and per thread, the faults
+    that found no frame (NotEnoughMemory) or failed, and keeps a histogram
+    of fault service times in HClock ticks, from the page fault to the
+    return from the handler (right after releaseThread()). Recording a
+    fault only bumps counters in arrays indexed by ID; nothing is
+    formatted until the metrics are dumped.
+
+    The dump goes to the log every MetricsInterval ticks (a key of the
+    [Memory] section; 0 or missing dumps once, at the SimulationLength of
+    the [General] section) and whenever OSP reports an error or a
+    warning. It includes the clean and dirty victim counts of
+    PageFaultHandler, the state of ARC, the Prefetcher, the TLB, the
+    DirtyPool and HugePages when they are in use, and how often per
+    fault the handler called ThreadCB.dispatch() itself and how often it
+    skipped the call at the end of a fault (see
+    PageFaultHandler.dispatchWhenIdle). The dispatcher passes of the
+    suspend and resume around a fault belong to the Threads module in
+    OSP.jar and are not counted.
+
+    @OSPProject Memory
+*/
+public class MemoryMetrics implements DaemonInterface
+{
+    private static final int BUCKETS = 24;
+
+    private int[] taskFaults = new int[16];
+    private int[] threadFaults = new int[64];
+    private long[] histogram = new long[BUCKETS];
+    private long faultcount = 0;
+    private long failedcount = 0;
+    private long notenoughcount = 0;
+    private long totalTicks = 0;
+    private long maxTicks = 0;
+    private long dispatchcount = 0;
+    private long skippedcount = 0;
+
+    /**
+       Creates the metrics and registers the daemon that dumps them.
+
+       @OSPProject Memory
+    */
+    public static MemoryMetrics create()
+    {
+        MemoryMetrics metrics = new MemoryMetrics();
+        int interval = MemoryParams.getInt("Memory", "MetricsInterval", 0);
+        if(interval <= 0)
+        {
+            interval = MemoryParams.getInt("General", "SimulationLength", 0);
+        }
+        if(interval > 0)
+        {
+            Daemon.create("Memory metrics", metrics, interval);
+        }
+        return metrics;
+    }
+
+    /**
+       Records a page fault of the thread on a page of the task, with the
+       result of the handler and the time the fault started.
+
+       @OSPProject Memory
+    */
+    public void onFault(int taskID, int threadID, int result, long start)
+    {
+        faultcount++;
+        taskFaults = count(taskFaults, taskID);
+        threadFaults = count(threadFaults, threadID);
+
+        if(result == GlobalVariables.NotEnoughMemory)
+        {
+            notenoughcount++;
+            return;
+        }
+        if(result != GlobalVariables.SUCCESS)
+        {
+            failedcount++;
+            return;
+        }
+        long ticks = Math.max(0, HClock.get() - start);
+        totalTicks += ticks;
+        maxTicks = Math.max(maxTicks, ticks);
+        int bucket = 63 - Long.numberOfLeadingZeros(Math.max(ticks, 1));
+        histogram[Math.min(bucket, BUCKETS - 1)]++;
+    }
+
+    /**
+       Records a ThreadCB.dispatch() call of the page fault handler, or
+       one it skipped.
+
+       @OSPProject Memory
+    */
+    public void onDispatch(boolean called)
+    {
+        if(called)
+        {
+            dispatchcount++;
+        }
+        else
+        {
+            skippedcount++;
+        }
+    }
+
+    public void unleash(ThreadCB thread)
+    {
+        dump();
+    }
+
+    /**
+       Writes the metrics to the log.
+
+       @OSPProject Memory
+    */
+    public void dump()
+    {
+        long served = faultcount - failedcount - notenoughcount;
+        MyOut.print(this, "Memory metrics: " + faultcount + " page faults, " + served + " served, "
+                    + failedcount + " failed, " + notenoughcount + " NotEnoughMemory; victims "
+                    + PageFaultHandler.cleanvictimcount + " clean, "
+                    + PageFaultHandler.dirtyvictimcount + " dirty");
+        if(served > 0)
+        {
+            StringBuilder line = new StringBuilder("Fault service time: mean "
+                                                   + (totalTicks / served) + ", max " + maxTicks + " ticks;");
+            for(int b = 0; b < BUCKETS; b++)
+            {
+                if(histogram[b] > 0)
+                {
+                    line.append(' ').append(1L << b).append("..").append((1L << (b + 1)) - 1)
+                        .append(':').append(histogram[b]);
+                }
+            }
+            MyOut.print(this, line.toString());
+        }
+        if(faultcount > 0)
+        {
+            MyOut.print(this, "Handler dispatch() calls per fault: "
+                        + String.format("%.2f", (double)dispatchcount / faultcount)
+                        + ", " + skippedcount + " skipped");
+        }
+        if(MMU.policy instanceof ARCPolicy)
+        {
+            MyOut.print(this, MMU.policy.toString());
+        }
+        if(MMU.prefetcher.isEnabled())
+        {
+            MyOut.print(this, MMU.prefetcher.toString());
+        }
+        if(MMU.tlb != null)
+        {
+            MyOut.print(this, MMU.tlb.toString());
+        }
+        if(MMU.dirtyPool != null)
+        {
+            MyOut.print(this, MMU.dirtyPool.toString());
+        }
+        if(MMU.hugePages != null)
+        {
+            MyOut.print(this, MMU.hugePages.toString());
+        }
+        MyOut.print(this, "Faults per task:" + list(taskFaults, taskFaults.length));
+        MyOut.print(this, "Faults per thread, top 10:" + list(threadFaults, 10));
+    }
+
+    private static int[] count(int[] counts, int id)
+    {
+        if(id >= counts.length)
+        {
+            counts = Arrays.copyOf(counts, Math.max(2 * counts.length, id + 1));
+        }
+        counts[id]++;
+        return counts;
+    }
+
+    /*
+       "ID:count" for the IDs with the most faults, at most limit of them,
+       in ID order.
+    */
+    private static String list(int[] counts, int limit)
+    {
+        List<Integer> ids = new ArrayList<Integer>();
+        for(int id = 0; id < counts.length; id++)
+        {
+            if(counts[id] > 0)
+            {
+                ids.add(id);
+            }
+        }
+        if(ids.size() > limit)
+        {
+            final int[] c = counts;
+            Collections.sort(ids, new Comparator<Integer>()
+            {
+                public int compare(Integer a, Integer b)
+                {
+                    return c[b] - c[a];
+                }
+            });
+            ids = ids.subList(0, limit);
+            Collections.sort(ids);
+        }
+        StringBuilder line = new StringBuilder();
+        for(int id : ids)
+        {
+            line.append(' ').append(id).append(':').append(counts[id]);
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,100 @@
+package osp.Memory;
+
+import java.io.*;
+import java.util.*;
+
+/**
+    The MemoryParams class reads the settings of this module that OSP
+    itself does not know about (e.g. ReplacementPolicy) from the
+    simulation parameter file. The file has the usual OSP layout:
+    [Section] headers followed by "Key Value" lines, # starts a comment.
+
+    The file is Misc/params.osp unless the osp.paramFile system property
+    names another one.
+
+    @OSPProject Memory
+*/
+public class MemoryParams
+{
+    private static Map<String, String> values;
+
+    /**
+       Returns the value of the key in the given section, or the default
+       if the file or the key is missing.
+
+       @OSPProject Memory
+    */
+    public static String get(String section, String key, String defaultValue)
+    {
+        if(values == null)
+        {
+            load();
+        }
+        String value = values.get(section + "." + key);
+        return (value == null) ? defaultValue : value;
+    }
+
+    /**
+       Like get(), for integer settings.
+
+       @OSPProject Memory
+    */
+    public static int getInt(String section, String key, int defaultValue)
+    {
+        String value = get(section, key, null);
+        if(value == null)
+        {
+            return defaultValue;
+        }
+        try
+        {
+            return Integer.parseInt(value);
+        }
+        catch(NumberFormatException e)
+        {
+            return defaultValue;
+        }
+    }
+
+    private static void load()
+    {
+        values = new HashMap<String, String>();
+        String fileName = System.getProperty("osp.paramFile", "Misc" + File.separator + "params.osp");
+        String section = "";
+
+        try
+        {
+            BufferedReader in = new BufferedReader(new FileReader(fileName));
+            try
+            {
+                String line;
+                while((line = in.readLine()) != null)
+                {
+                    line = line.trim();
+                    if(line.length() == 0 || line.startsWith("#"))
+                    {
+                        continue;
+                    }
+                    if(line.startsWith("[") && line.endsWith("]"))
+                    {
+                        section = line.substring(1, line.length() - 1).trim();
+                        continue;
+                    }
+                    String[] pair = line.split("\\s+", 2);
+                    if(pair.length == 2)
+                    {
+                        values.put(section + "." + pair[0], pair[1].trim());
+                    }
+                }
+            }
+            finally
+            {
+                in.close();
+            }
+        }
+        catch(IOException e)
+        {
+            // no file: every setting falls back to its default
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package osp.Memory;
+
+import java.util.*;
+import osp.IFLModules.*;
+import osp.Threads.*;
+import osp.Utilities.*;
+
+/**
+    The PageCleaner daemon writes dirty pages back to their swap files
+    ahead of time, so that most victims are already clean when a page
+    fault needs a frame and the faulting thread waits for one disk
+    operation instead of two.
+
+    OSP wakes the daemon every CleanerInterval ticks (a key of the
+    [Memory] section, 0 or missing turns it off). It only works while no
+    swap-in or swap-out of a page fault is in flight, writes at most
+    CleanerBatch pages per wake-up, and stops as soon as a fault starts
+    using the swap device. Candidates are dirty frames that are neither
+    reserved nor locked. Frames parked in the DirtyPool go first, then
+    frames that WSClock queued for write-back, then frames whose
+    reference bit is clear.
+
+    With ReclaimLowWatermark set, a wake-up that finds fewer free frames
+    than that reclaims instead: it takes victims from the replacement
+    policy until, counting the ones still to be written, free frames
+    would reach ReclaimHighWatermark. Clean victims are evicted at once.
+    The dirty ones are written out sorted by task and page number, so
+    the swap device sees them in block order, and evicted when the
+    write is done, unless the page was written to again meanwhile.
+    Reclaim does not wait for the faults' swap I/O; it exists so that
+    faults find free frames and do not write victims themselves.
+
+    @OSPProject Memory
+*/
+public class PageCleaner implements DaemonInterface
+{
+    private int hand = 0;
+    private int batch;
+    private int lowWatermark;
+    private int highWatermark;
+    private int cleanedcount = 0;
+    private int reclaimcount = 0;
+    private int reclaimedcount = 0;
+
+    public PageCleaner(int batch, int lowWatermark, int highWatermark)
+    {
+        this.batch = batch;
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = Math.max(lowWatermark, highWatermark);
+    }
+
+    /**
+       Registers the daemon with OSP if CleanerInterval is set.
+
+       @OSPProject Memory
+    */
+    public static void start()
+    {
+        int interval = MemoryParams.getInt("Memory", "CleanerInterval", 0);
+        if(interval > 0)
+        {
+            int batch = MemoryParams.getInt("Memory", "CleanerBatch", 4);
+            int low = MemoryParams.getInt("Memory", "ReclaimLowWatermark", 0);
+            int high = MemoryParams.getInt("Memory", "ReclaimHighWatermark", 2 * low);
+            Daemon.create("Page cleaner", new PageCleaner(batch, low, high), interval);
+        }
+    }
+
+    public void unleash(ThreadCB thread)
+    {
+        if(MMU.framePool.getFreeCount() < lowWatermark)
+        {
+            reclaim(thread);
+            return;
+        }
+
+        int written = 0;
+
+        while(written < batch && MMU.swapIOInProgress == 0)
+        {
+            FrameTableEntry frame = nextDirtyFrame();
+            if(frame == null)
+            {
+                break;
+            }
+
+            // The write locks the page, so the frame cannot be given away
+            // while it is in progress, but the task may die meanwhile.
+            PageTableEntry page = frame.getPage();
+            frame.cleanPending = true;
+            page.getTask().getSwapFile().write(page.getID(), page, thread);
+            if(frame.getPage() == page && frame.cleanPending)
+            {
+                frame.markDirty(false);
+                if(MMU.dirtyPool != null)
+                {
+                    MMU.dirtyPool.remove(frame);
+                }
+            }
+            frame.cleanPending = false;
+            written++;
+            cleanedcount++;
+
+            if(thread.getStatus() == GlobalVariables.ThreadKill)
+            {
+                break;
+            }
+        }
+
+        MyOut.print(this, "Page cleaner wrote " + written + " pages (" + cleanedcount
+                    + " in total); victims so far: " + PageFaultHandler.cleanvictimcount
+                    + " clean, " + PageFaultHandler.dirtyvictimcount + " dirty");
+    }
+
+    /*
+       Evicts victims of the policy until the free frames, counting the
+       dirty victims, reach the high watermark, then writes out the
+       dirty ones in swap block order and evicts them too.
+    */
+    private void reclaim(ThreadCB thread)
+    {
+        reclaimcount++;
+        int evicted = 0;
+        List<FrameTableEntry> dirty = new ArrayList<FrameTableEntry>();
+        while(MMU.framePool.getFreeCount() + dirty.size() < highWatermark)
+        {
+            FrameTableEntry frame = MMU.policy.selectVictim(null);
+            if(frame == null)
+            {
+                break;
+            }
+            if(frame.isDirty())
+            {
+                frame.reclaiming = true;
+                dirty.add(frame);
+            }
+            else
+            {
+                evict(frame);
+                evicted++;
+            }
+        }
+
+        Collections.sort(dirty, new Comparator<FrameTableEntry>()
+        {
+            public int compare(FrameTableEntry a, FrameTableEntry b)
+            {
+                PageTableEntry x = a.getPage();
+                PageTableEntry y = b.getPage();
+                if(x.getTask() != y.getTask())
+                {
+                    return x.getTask().getID() - y.getTask().getID();
+                }
+                return x.getID() - y.getID();
+            }
+        });
+
+        // The flags only keep the policy from offering a frame twice. A
+        // fault may take a dirty victim while the others are written; the
+        // write locks the page, so it cannot be taken during the write.
+        List<PageTableEntry> pages = new ArrayList<PageTableEntry>();
+        for(FrameTableEntry frame : dirty)
+        {
+            frame.reclaiming = false;
+            pages.add(frame.getPage());
+        }
+
+        int written = 0;
+        for(int i = 0; i < dirty.size() && thread.getStatus() != GlobalVariables.ThreadKill; i++)
+        {
+            FrameTableEntry frame = dirty.get(i);
+            PageTableEntry page = pages.get(i);
+            if(frame.getPage() != page || !frame.isDirty() || !frame.isReplaceable())
+            {
+                continue;
+            }
+            frame.cleanPending = true;
+            page.getTask().getSwapFile().write(page.getID(), page, thread);
+            if(frame.getPage() == page && frame.cleanPending)
+            {
+                frame.markDirty(false);
+                if(frame.isReplaceable())
+                {
+                    evict(frame);
+                    evicted++;
+                }
+            }
+            frame.cleanPending = false;
+            written++;
+            cleanedcount++;
+        }
+
+        reclaimedcount += evicted;
+        MyOut.print(this, "Page cleaner reclaimed " + evicted + " frames, wrote " + written
+                    + " pages; " + MMU.framePool.getFreeCount() + " frames free, "
+                    + reclaimedcount + " reclaimed in " + reclaimcount + " passes");
+    }
+
+    private static void evict(FrameTableEntry frame)
+    {
+        PageFaultHandler.detach(frame, frame.getPage());
+        MMU.framePool.release(frame);
+    }
+
+    private FrameTableEntry nextDirtyFrame()
+    {
+        if(MMU.dirtyPool != null)
+        {
+            FrameTableEntry frame = MMU.dirtyPool.nextWriteBack();
+            if(frame != null)
+            {
+                return frame;
+            }
+        }
+        if(MMU.policy instanceof WSClockPolicy)
+        {
+            FrameTableEntry frame = ((WSClockPolicy)MMU.policy).nextWriteBack(null);
+            if(frame != null)
+            {
+                return frame;
+            }
+        }
+
+        // LRU and FIFO never clear reference bits, so a referenced dirty
+        // frame is taken when no unreferenced one is left.
+        FrameTableEntry frame = sweep(true);
+        return (frame != null) ? frame : sweep(false);
+    }
+
+    /*
+       One turn of the hand over the dirty bits of MMU.frameState,
+       returning the first dirty frame that may be written back.
+    */
+    private FrameTableEntry sweep(boolean unreferenced)
+    {
+        int start = hand;
+        int i = MMU.frameState.nextDirty(start, unreferenced);
+        boolean wrapped = false;
+        while(true)
+        {
+            if(i < 0)
+            {
+                if(wrapped)
+                {
+                    return null;
+                }
+                wrapped = true;
+                i = MMU.frameState.nextDirty(0, unreferenced);
+                continue;
+            }
+            if(wrapped && i >= start)
+            {
+                return null;
+            }
+            FrameTableEntry frame = MMU.getFrame(i);
+            if(frame.isReplaceable() && frame.isDirty() && (!unreferenced || !frame.isReferenced()))
+            {
+                hand = (i + 1) % MMU.getFrameTableSize();
+                return frame;
+            }
+            i = MMU.frameState.nextDirty(i + 1, unreferenced);
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package osp.Memory;
+
+import osp.Hardware.*;
+import osp.Threads.*;
+import osp.Tasks.*;
+import osp.FileSys.FileSys;
+import osp.FileSys.OpenFile;
+import osp.IFLModules.*;
+import osp.Interrupts.*;
+import osp.Utilities.*;
+import osp.IFLModules.*;
+
+/**
+    The page fault handler is responsible for handling a page
+    fault.  If a swap in or swap out operation is required, the page fault
+    handler must request the operation.
+
+    @OSPProject Memory
+*/public class PageFaultHandler extends IflPageFaultHandler
+
+{
+    /**
+       Victims that were clean and needed no swap-out, and victims that
+       were dirty. The PageCleaner reports both.
+    */
+    public static int cleanvictimcount = 0;
+    public static int dirtyvictimcount = 0;
+
+    /**
+       Set by FaultDispatch Idle in the [Memory] section. OSP requires the
+       faulting thread to be suspended on a SystemEvent, and both that
+       suspend and the resume from it in releaseThread() already pass
+       through the dispatcher, so the thread is back on the ready queue
+       when the fault ends. The handler then only dispatches if the CPU
+       went idle meanwhile. A thread killed during the fault is never
+       resumed, so the failure paths always dispatch.
+    */
+    static boolean dispatchWhenIdle = false;
+
+    /**
+        This method handles a page fault. 
+
+        It must check and return if the page is valid, 
+
+        It must check if the page is already being brought in by some other
+	thread, i.e., if the page's has already pagefaulted
+	(for instance, using getValidatingThread()).
+        If that is the case, the thread must be suspended on that page.
+        
+        If none of the above is true, a new frame must be chosen 
+        and reserved until the swap in of the requested 
+        page into this frame is complete. 
+
+	Note that you have to make sure that the validating thread of
+	a page is set correctly. To this end, you must set the page's
+	validating thread using setValidatingThread() when a pagefault
+	happens and you must set it back to null when the pagefault is over.
+
+        If a swap-out is necessary (because the chosen frame is
+        dirty), the victim page must be dissasociated 
+        from the frame and marked invalid. After the swap-in, the 
+        frame must be marked clean. The swap-ins and swap-outs 
+        must are preformed using regular calls read() and write().
+
+        The student implementation should define additional methods, e.g, 
+        a method to search for an available frame.
+
+	Note: multiple threads might be waiting for completion of the
+	page fault. The thread that initiated the pagefault would be
+	waiting on the IORBs that are tasked to bring the page in (and
+	to free the frame during the swapout). However, while
+	pagefault is in progress, other threads might request the same
+	page. Those threads won't cause another pagefault, of course,
+	but they would enqueue themselves on the page (a page is also
+	an Event!), waiting for the completion of the original
+	pagefault. It is thus important to call notifyThreads() on the
+	page at the end -- regardless of whether the pagefault
+	succeeded in bringing the page in or not.
+
+        @param thread the thread that requested a page fault
+        @param referenceType whether it is memory read or write
+        @param page the memory page 
+
+	@return SUCCESS is everything is fine; FAILURE if the thread
+	dies while waiting for swap in or swap out or if the page is
+	already in memory and no page fault was necessary (well, this
+	shouldn't happen, but...). In addition, if there is no frame
+	that can be allocated to satisfy the page fault, then it
+	should return NotEnoughMemory
+
+        @OSPProject Memory
+    */
+    public static int do_handlePageFault(ThreadCB thread, 
+					 int referenceType,
+					 PageTableEntry page)
+    {
+		if(page.isValid())
+    	{
+    		return FAILURE;
+    	}
+        else
+		{
+			long start = HClock.get();
+			int result = handle(thread,page);
+			MMU.pagefaultcount++;
+			page.getTask().getPageTable().pagefaultcount++;
+			MMU.metrics.onFault(page.getTask().getID(), thread.getID(), result, start);
+			return result;
+		}
+    }
+
+    /**
+       Brings the page into a free frame, or into the frame of the victim
+       chosen by MMU.policy after swapping the victim out if it is dirty.
+       With load control on, MMU.loadControl picks the frame instead.
+
+       @OSPProject Memory
+    */
+    public static int handle(ThreadCB thread, PageTableEntry page)
+    {
+		if(MMU.framePool.isExhausted())
+		{
+			return NotEnoughMemory;
+		}
+		
+    	FrameTableEntry newFrame;
+    	FrameTableEntry[] run = (MMU.hugePages == null) ? null : MMU.hugePages.takeRun(page);
+    	if(run != null)
+    	{
+    		newFrame = run[page.getID() & (run.length - 1)];
+    	}
+    	else if(MMU.loadControl != null)
+    	{
+    		newFrame = MMU.loadControl.selectFrame(page);
+    	}
+    	else
+    	{
+    		newFrame = MMU.framePool.takeFree();
+    		if(newFrame == null)
+    		{
+    			newFrame = MMU.policy.selectVictim(null);
+    		}
+    	}
+    	if(newFrame == null && MMU.dirtyPool != null)
+    	{
+    		newFrame = MMU.dirtyPool.oldestParked();
+    	}
+    	if(newFrame == null)
+    	{
+    		dispatch();
+    		return NotEnoughMemory;
+    	}
+    	if(MMU.dirtyPool != null && newFrame.isDirty())
+    	{
+    		TaskCB scope = (MMU.loadControl != null) ? newFrame.getPage().getTask() : null;
+    		newFrame = MMU.dirtyPool.substitute(newFrame, scope);
+    	}
+    	
+		Event pfevent = reserveThread(thread, page, newFrame);
+		
+		PageTableEntry oldPage = newFrame.getPage();
+		if(oldPage != null)
+		{
+			if(newFrame.isDirty())
+			{
+				dirtyvictimcount++;
+				swapOut(thread, oldPage);
+				
+				if(thread.getStatus() == ThreadKill)
+				{
+					swapOutCleanup(pfevent,page,newFrame,thread);
+					
+					dispatch();
+					return FAILURE;
+				}
+				newFrame.markDirty(false);
+			}
+			else
+			{
+				cleanvictimcount++;
+			}
+			detach(newFrame, oldPage);
+		}
+		
+		page.setFrame(newFrame);
+		swapIn(thread, page);
+		
+		if(thread.getStatus() == ThreadKill)
+		{
+			swapInCleanup(pfevent,page,newFrame,thread);
+			if(run != null)
+			{
+				MMU.hugePages.release(run, page);
+			}
+			
+			dispatch();
+			return FAILURE;
+		}
+		
+		newFrame.setPage(page);
+		page.getTask().getPageTable().addResident(newFrame);
+		
+		// The page stays invalid while the pages after it are read in,
+		// so that no other thread uses it before the faulting thread.
+		if(run != null || MMU.prefetcher.isEnabled())
+		{
+			if(run != null)
+			{
+				MMU.hugePages.fill(thread, page, run);
+			}
+			else
+			{
+				MMU.prefetcher.prefetch(thread, page);
+			}
+			
+			if(thread.getStatus() == ThreadKill)
+			{
+				swapInCleanup(pfevent,page,newFrame,thread);
+				
+				dispatch();
+				return FAILURE;
+			}
+		}
+		page.setValid(true);
+		page.inRun = (run != null);
+		
+		MMU.policy.onLoad(newFrame);
+		releaseThread(pfevent, page, newFrame, thread);
+		
+		if(dispatchWhenIdle && MMU.getPTBR() != null)
+		{
+			MMU.metrics.onDispatch(false);
+		}
+		else
+		{
+			dispatch();
+		}
+		return SUCCESS;
+    }
+
+    private static void dispatch()
+    {
+		MMU.metrics.onDispatch(true);
+		ThreadCB.dispatch();
+    }
+
+    /**
+       Takes the old page out of the frame once it is clean, telling the
+       replacement policy and the prefetcher that it leaves.
+
+       @OSPProject Memory
+    */
+    public static void detach(FrameTableEntry frame, PageTableEntry oldPage)
+    {
+		MMU.policy.onEvict(frame);
+		MMU.prefetcher.onEvict(frame);
+		oldPage.getTask().getPageTable().removeResident(frame);
+		if(MMU.dirtyPool != null)
+		{
+			MMU.dirtyPool.remove(frame);
+		}
+		if(MMU.tlb != null)
+		{
+			MMU.tlb.invalidate(oldPage);
+		}
+		frame.markReferenced(false);
+		frame.setPage(null);
+		oldPage.setValid(false);
+		oldPage.setFrame(null);
+		oldPage.inRun = false;
+    }
+   												
+	public static Event reserveThread(ThreadCB thread, PageTableEntry page, FrameTableEntry newFrame)
+    {
+		Event pfevent = new SystemEvent("Kernel mode switching-PageFaultHappened");
+    	thread.suspend(pfevent);
+    	page.setValidatingThread(thread);
+    	newFrame.reserve(thread.getTask());
+		return pfevent;
+	}
+	
+	public static void releaseThread(Event pfevent, PageTableEntry page, FrameTableEntry newFrame,ThreadCB thread)
+    {
+		if(newFrame.getReserved() == thread.getTask())
+    	{
+    	    newFrame.unreserve(thread.getTask());    		
+    	}
+		page.setValidatingThread(null);
+    	page.notifyThreads();
+    	pfevent.notifyThreads();
+	}
+	
+    public static void swapIn(ThreadCB thread, PageTableEntry page)
+    {
+    	TaskCB newTask = page.getTask();
+    	MMU.swapincount++;
+    	MMU.swapIOInProgress++;
+    	newTask.getSwapFile().read(page.getID(), page, thread);
+    	MMU.swapIOInProgress--;
+    }
+	
+    public static void swapOut(ThreadCB thread, PageTableEntry oldPage)
+    {
+    	TaskCB newTask = oldPage.getTask();
+    	MMU.swapoutcount++;
+    	MMU.swapIOInProgress++;
+    	newTask.getSwapFile().write(oldPage.getID(), oldPage, thread);
+    	MMU.swapIOInProgress--;
+    }
+	
+	/**
+	   Reads a page other than the faulting one into the frame, which the
+	   task has reserved, on behalf of the faulting thread, and makes it
+	   valid. Used for the pages read in along with a fault, see
+	   Prefetcher and HugePages.
+
+	   @return false if the thread was killed meanwhile
+
+	   @OSPProject Memory
+	*/
+	public static boolean readAhead(ThreadCB thread, PageTableEntry page, FrameTableEntry frame)
+	{
+		TaskCB task = page.getTask();
+		page.setValidatingThread(thread);
+		PageTableEntry oldPage = frame.getPage();
+		if(oldPage != null)
+		{
+			detach(frame, oldPage);
+		}
+
+		page.setFrame(frame);
+		swapIn(thread, page);
+
+		if(thread.getStatus() == ThreadKill)
+		{
+			if(frame.getReserved() == task)
+			{
+				frame.unreserve(task);
+			}
+			page.setValidatingThread(null);
+			page.setFrame(null);
+			page.notifyThreads();
+			if((frame.getPage() == null) || (frame.getPage() == page))
+			{
+				frame.releasePage();
+			}
+			return false;
+		}
+
+		frame.setPage(page);
+		task.getPageTable().addResident(frame);
+		page.setValid(true);
+		MMU.policy.onLoad(frame);
+
+		if(frame.getReserved() == task)
+		{
+			frame.unreserve(task);
+		}
+		page.setValidatingThread(null);
+		page.notifyThreads();
+		return true;
+	}
+
+	public static void swapInCleanup(Event pfevent, PageTableEntry page,FrameTableEntry newFrame,ThreadCB thread)
+    {
+		if(newFrame.getReserved() == thread.getTask())
+		{
+			newFrame.unreserve(thread.getTask());
+		}
+		page.setValidatingThread(null);
+		page.setFrame(null);
+	    page.notifyThreads();
+        pfevent.notifyThreads();
+		if((newFrame.getPage() == null) || (newFrame.getPage() == page))
+		{
+			page.getTask().getPageTable().removeResident(newFrame);
+			newFrame.releasePage();
+		}
+	}
+	
+	public static void swapOutCleanup(Event pfevent, PageTableEntry page,FrameTableEntry newFrame,ThreadCB thread)
+    {
+		if(newFrame.getReserved() == thread.getTask())
+		{
+			newFrame.unreserve(thread.getTask());
+		}
+		page.setValidatingThread(null); 
+    	page.notifyThreads();
+    	pfevent.notifyThreads();
+	}
+    /*
+       Feel free to add methods/fields to improve the readability of your code
+    */
+
+}
+
+/*
+      Feel free to add local classes to improve the readability of your code
+*/
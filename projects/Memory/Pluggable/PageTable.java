@@ -0,0 +1,187 @@
+package osp.Memory;
+/**
+    The PageTable class represents the page table for a given task.
+    A PageTable consists of an array of PageTableEntry objects.  This
+    page table is of the non-inverted type.
+
+    @OSPProject Memory
+*/
+import java.lang.Math;
+import java.util.*;
+import osp.Tasks.*;
+import osp.Utilities.*;
+import osp.IFLModules.*;
+import osp.Hardware.*;
+
+public class PageTable extends IflPageTable
+{
+    private int touchedcount = 0;
+    int pagefaultcount = 0;
+
+    /*
+       Frame quota and time of the last page fault, in CPU time of the
+       task, kept by LoadControl.
+    */
+    int quota;
+    double lastFaultTime;
+
+    private HashSet<FrameTableEntry> residentFrames = new HashSet<FrameTableEntry>();
+    private HashSet<FrameTableEntry> reservedFrames = new HashSet<FrameTableEntry>();
+
+    /** 
+	The page table constructor. Must call
+	
+	    super(ownerTask)
+
+	as its first statement.
+
+	@OSPProject Memory
+    */
+    public PageTable(TaskCB ownerTask)
+    {
+       super(ownerTask);
+	   
+	    int noOfPTE = (int)Math.pow(2, MMU.getPageAddressBits());
+    	pages = new PageTableEntry[noOfPTE];
+        for(int i = 0; i < noOfPTE; i++)
+        {
+    	 pages[i] = new PageTableEntry(this, i);
+        }
+    }
+
+    /**
+       Counts the page as used by the task the first time it is
+       referenced or locked. OSP walks the whole pages array when the
+       task is created and on every page fault, so the entries cannot be
+       created lazily; the count shows how many of them a task needs.
+
+       @OSPProject Memory
+    */
+    public void touch(PageTableEntry page)
+    {
+        if(!page.touched)
+        {
+            page.touched = true;
+            touchedcount++;
+        }
+    }
+
+    public int getTouchedCount()
+    {
+        return touchedcount;
+    }
+
+    /**
+       Frees up main memory occupied by the task.
+       Then unreserves the freed pages, if necessary.
+
+       Only the frames on the task's resident and reserved sets are
+       visited, not the whole frame table.
+
+       @OSPProject Memory
+    */
+    public void do_deallocateMemory()
+    {
+        TaskCB pagetableTask = getTask();
+        MyOut.print(this, "Task " + pagetableTask.getID() + " used " + touchedcount
+                    + " of " + pages.length + " page table entries, "
+                    + pagefaultcount + " page faults");
+
+        for(FrameTableEntry frame : new ArrayList<FrameTableEntry>(residentFrames))
+        {
+            freeFrame(frame, pagetableTask);
+        }
+        for(FrameTableEntry frame : new ArrayList<FrameTableEntry>(reservedFrames))
+        {
+            freeFrame(frame, pagetableTask);
+        }
+        residentFrames.clear();
+        reservedFrames.clear();
+        if(MMU.loadControl != null)
+        {
+            MMU.loadControl.onTaskExit(this);
+        }
+    }
+
+    /**
+       Records that the frame now holds a page of this task.
+
+       @OSPProject Memory
+    */
+    public void addResident(FrameTableEntry frame)
+    {
+        residentFrames.add(frame);
+    }
+
+    /**
+       Records that the frame no longer holds a page of this task.
+
+       @OSPProject Memory
+    */
+    public void removeResident(FrameTableEntry frame)
+    {
+        residentFrames.remove(frame);
+    }
+
+    /**
+       Returns the number of frames holding pages of this task, i.e. its
+       resident set size.
+
+       @OSPProject Memory
+    */
+    public int getResidentCount()
+    {
+        return residentFrames.size();
+    }
+
+    /*
+       Kept by FrameTableEntry.reserve() and unreserve(). A frame may be
+       reserved by the task while it still holds a victim page of another
+       task, so these are tracked apart from the resident frames.
+    */
+    void addReserved(FrameTableEntry frame)
+    {
+        reservedFrames.add(frame);
+    }
+
+    void removeReserved(FrameTableEntry frame)
+    {
+        reservedFrames.remove(frame);
+    }
+
+    private static void freeFrame(FrameTableEntry frame, TaskCB pagetableTask)
+    {
+        PageTableEntry page = frame.getPage();
+        if(page != null && page.getTask() == pagetableTask)
+        {
+            MMU.policy.onEvict(frame);
+            if(MMU.tlb != null)
+            {
+                MMU.tlb.invalidate(page);
+            }
+            if(MMU.dirtyPool != null)
+            {
+                MMU.dirtyPool.remove(frame);
+            }
+            frame.markDirty(false);
+            frame.markReferenced(false);
+            if(frame.getReserved() == pagetableTask)
+                frame.unreserve(pagetableTask);
+            frame.releasePage();
+        }
+        else if(frame.getReserved() == pagetableTask)
+        {
+            frame.unreserve(pagetableTask);
+        }
+    }
+
+
+    /*
+       Feel free to add methods/fields to improve the readability of your code
+    */
+
+}
+
+/*
+      Feel free to add local classes to improve the readability of your code
+*/
@@ -0,0 +1,147 @@
+package osp.Memory;
+
+import osp.Tasks.*;
+import osp.Threads.*;
+import osp.Utilities.*;
+
+/**
+    The Prefetcher brings in the pages that follow a faulting page, so
+    that a task walking through its address space takes one page fault
+    for a run of pages instead of one per page.
+
+    After page N has been swapped in, pages N+1..N+window of the same
+    page table are read in, one IORB each, back to back by the faulting
+    thread. A page is only prefetched into a free frame or into the frame
+    of a clean victim; the run stops at the first page that is already
+    valid or on its way in, whenever no such frame is left, and when the
+    task reaches its LoadControl quota.
+
+    The window starts at 1 and adapts to how the prefetched pages are
+    used: each one that is referenced before it is evicted widens it by
+    one, up to the PrefetchWindow key of the [Memory] section, and each
+    one evicted without a reference halves it. PrefetchWindow 0 or
+    missing turns prefetching off.
+
+    @OSPProject Memory
+*/
+public class Prefetcher
+{
+    private int maxWindow;
+    private int window;
+    private int prefetchcount = 0;
+    private int usedcount = 0;
+    private int wastedcount = 0;
+
+    public Prefetcher(int maxWindow)
+    {
+        this.maxWindow = maxWindow;
+        this.window = Math.min(1, maxWindow);
+    }
+
+    /**
+       Prefetches the pages after the page the thread just swapped in.
+       The faulting thread stays suspended on its page fault event
+       meanwhile, and the page itself is not valid yet.
+
+       @OSPProject Memory
+    */
+    public void prefetch(ThreadCB thread, PageTableEntry page)
+    {
+        TaskCB task = page.getTask();
+        PageTableEntry[] pages = task.getPageTable().pages;
+        int issued = 0;
+
+        for(int i = page.getID() + 1; i < pages.length && issued < window; i++)
+        {
+            PageTableEntry next = pages[i];
+            if(next.isValid() || next.getValidatingThread() != null)
+            {
+                break;
+            }
+
+            if(MMU.loadControl != null && !MMU.loadControl.hasRoom(task))
+            {
+                break;
+            }
+            FrameTableEntry frame = cleanFrame();
+            if(frame == null)
+            {
+                break;
+            }
+
+            frame.reserve(task);
+            if(!PageFaultHandler.readAhead(thread, next, frame))
+            {
+                break;
+            }
+            frame.prefetched = true;
+
+            issued++;
+            prefetchcount++;
+        }
+    }
+
+    /**
+       Called on every reference to a resident page. The first reference
+       to a prefetched page widens the window.
+
+       @OSPProject Memory
+    */
+    public void onReference(FrameTableEntry frame)
+    {
+        if(frame.prefetched)
+        {
+            frame.prefetched = false;
+            usedcount++;
+            window = Math.min(maxWindow, window + 1);
+        }
+    }
+
+    /**
+       Called when a page leaves its frame as a victim. A prefetched page
+       that was never referenced halves the window.
+
+       @OSPProject Memory
+    */
+    public void onEvict(FrameTableEntry frame)
+    {
+        if(frame.prefetched)
+        {
+            frame.prefetched = false;
+            wastedcount++;
+            window = Math.max(1, window / 2);
+        }
+    }
+
+    public boolean isEnabled()
+    {
+        return maxWindow > 0;
+    }
+
+    /*
+       A free frame, or the frame of a victim that needs no swap-out.
+    */
+    private FrameTableEntry cleanFrame()
+    {
+        if(MMU.framePool.isExhausted())
+        {
+            return null;
+        }
+        FrameTableEntry frame = MMU.framePool.takeFree();
+        if(frame == null)
+        {
+            frame = MMU.policy.selectVictim(null);
+            if(frame != null && frame.isDirty())
+            {
+                frame = null;
+            }
+        }
+        return frame;
+    }
+
+    public String toString()
+    {
+        return "Prefetch window " + window + ": " + prefetchcount + " pages prefetched, "
+               + usedcount + " used, " + wastedcount + " evicted unused";
+    }
+}
@@ -0,0 +1,47 @@
+package osp.Memory;
+
+import osp.Tasks.*;
+
+/**
+    A page replacement policy. The page fault handler does the swap-in and
+    swap-out work and only asks the policy which frame to give up; the
+    policy learns about the resident pages through the hooks below.
+
+    The policy is picked at startup from the ReplacementPolicy key of the
+    [Memory] section of the parameter file, see MMU.createPolicy().
+
+    @OSPProject Memory
+*/
+public interface ReplacementPolicy
+{
+    /**
+       Called when a resident page is referenced or locked, i.e. on an
+       MMU hit and in PageTableEntry.do_lock().
+
+       @param frame the frame that holds the page
+       @param referenceType MemoryRead, MemoryWrite or MemoryLock
+    */
+    void onReference(FrameTableEntry frame, int referenceType);
+
+    /**
+       Called when a page has been brought into the frame.
+    */
+    void onLoad(FrameTableEntry frame);
+
+    /**
+       Called when the page in the frame is about to leave it, either as
+       a victim or because its task gives up its memory. The frame still
+       holds the page.
+    */
+    void onEvict(FrameTableEntry frame);
+
+    /**
+       Returns the frame whose page should be replaced, or null if no
+       frame can be replaced right now. The frame returned must hold a
+       page and be neither reserved nor locked.
+
+       @param task if not null, only frames holding pages of this task
+       are considered (local replacement, see LoadControl)
+    */
+    FrameTableEntry selectVictim(TaskCB task);
+}
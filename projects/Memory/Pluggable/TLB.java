@@ -0,0 +1,253 @@
+package osp.Memory;
+
+import java.util.*;
+import osp.Utilities.*;
+
+/**
+    A set-associative translation lookaside buffer in front of the page
+    table. An entry maps a page number, tagged with the task ID as its
+    address space ID, to the page table entry of a resident page, so a
+    hit skips the page table walk of MMU.do_refer().
+
+    The geometry comes from the [Memory] section of the parameter file:
+
+      TLBSize           number of entries, 0 or missing turns the TLB off
+      TLBAssociativity  entries per set (TLBSize for fully associative)
+      TLBReplacement    LRU or Random
+      TLBTagging        ASID keeps the entries of all tasks, Flush empties
+                        the TLB whenever another task's page table is
+                        installed
+
+    The number of sets is rounded down to a power of two so the set is
+    picked with a mask. A context switch is seen as a change of the PTBR,
+    since dispatching belongs to the Threads module. Entries of a page
+    are shot down when the page leaves its frame.
+
+    In huge-page mode (see HugePages) a page that was read into a frame
+    run gets an entry tagged with the run number instead, which covers
+    every page of the run still in its frame of the run; a hit on any
+    other page of the run counts as a miss. Pages in single frames keep
+    one entry each.
+
+    @OSPProject Memory
+*/
+public class TLB
+{
+    private int sets;
+    private int ways;
+    private int setMask;
+    private int pageShift;
+    private boolean lru;
+    private boolean asidTagging;
+
+    private int[] asids;
+    private int[] pageNumbers;
+    private boolean[] huge;
+    private PageTableEntry[] entries;
+    private long[] lastUsed;
+    private long clock = 0;
+    private Random random = new Random();
+
+    private PageTable currentPTBR;
+    private int currentASID;
+
+    private long hitcount = 0;
+    private long misscount = 0;
+    private long flushcount = 0;
+
+    public TLB(int size, int associativity, String replacement, String tagging, int pageShift)
+    {
+        this.pageShift = pageShift;
+        ways = Math.max(1, Math.min(associativity, size));
+        sets = Integer.highestOneBit(Math.max(1, size / ways));
+        setMask = sets - 1;
+        lru = !replacement.equalsIgnoreCase("Random");
+        asidTagging = !tagging.equalsIgnoreCase("Flush");
+
+        asids = new int[sets * ways];
+        pageNumbers = new int[sets * ways];
+        huge = new boolean[sets * ways];
+        entries = new PageTableEntry[sets * ways];
+        lastUsed = new long[sets * ways];
+    }
+
+    /**
+       Creates the TLB described by the parameter file, or returns null
+       if TLBSize is 0 or missing.
+
+       @OSPProject Memory
+    */
+    public static TLB create()
+    {
+        int size = MemoryParams.getInt("Memory", "TLBSize", 0);
+        if(size <= 0)
+        {
+            return null;
+        }
+        TLB tlb = new TLB(size,
+                          MemoryParams.getInt("Memory", "TLBAssociativity", size),
+                          MemoryParams.get("Memory", "TLBReplacement", "LRU"),
+                          MemoryParams.get("Memory", "TLBTagging", "ASID"),
+                          (MMU.hugePages == null) ? 0 : Integer.numberOfTrailingZeros(MMU.hugePages.getRunLength()));
+        MyOut.print("osp.Memory.TLB", "TLB: " + tlb.sets + " sets of " + tlb.ways
+                    + " entries, " + (tlb.lru ? "LRU" : "random") + " replacement, "
+                    + (tlb.asidTagging ? "ASID tagged" : "flushed on context switch")
+                    + ", " + (1 << tlb.pageShift) + " pages per entry");
+        return tlb;
+    }
+
+    /**
+       Returns the page table entry cached for the page number in the
+       address space of the page table, or null on a miss.
+
+       @OSPProject Memory
+    */
+    public PageTableEntry lookup(PageTable ptbr, int pageNo)
+    {
+        if(ptbr != currentPTBR)
+        {
+            switchTo(ptbr);
+        }
+
+        int i = find(pageNo, false, currentASID);
+        if(i >= 0 && entries[i].isValid())
+        {
+            lastUsed[i] = ++clock;
+            hitcount++;
+            return entries[i];
+        }
+        if(pageShift > 0)
+        {
+            i = find(pageNo >>> pageShift, true, currentASID);
+            PageTableEntry page = ptbr.pages[pageNo];
+            if(i >= 0 && page.isValid() && page.inRun)
+            {
+                lastUsed[i] = ++clock;
+                hitcount++;
+                return page;
+            }
+        }
+        misscount++;
+        return null;
+    }
+
+    /**
+       Caches the translation of a page that is now valid, replacing an
+       empty way or the LRU or a random way of its set.
+
+       @OSPProject Memory
+    */
+    public void insert(int pageNo, PageTableEntry page)
+    {
+        boolean run = (pageShift > 0 && page.inRun);
+        int tag = run ? (pageNo >>> pageShift) : pageNo;
+        int asid = page.getTask().getID();
+        int found = find(tag, run, asid);
+        if(found >= 0)
+        {
+            entries[found] = page;
+            lastUsed[found] = ++clock;
+            return;
+        }
+
+        int base = (tag & setMask) * ways;
+        int victim = -1;
+        for(int i = base; i < base + ways; i++)
+        {
+            if(entries[i] == null)
+            {
+                victim = i;
+                break;
+            }
+            if(victim < 0 || lastUsed[i] < lastUsed[victim])
+            {
+                victim = i;
+            }
+        }
+        if(entries[victim] != null && !lru)
+        {
+            victim = base + random.nextInt(ways);
+        }
+
+        asids[victim] = asid;
+        pageNumbers[victim] = tag;
+        huge[victim] = run;
+        entries[victim] = page;
+        lastUsed[victim] = ++clock;
+    }
+
+    /**
+       Drops the translation of the page, and that of its run if it is in
+       a frame run, called when it leaves its frame.
+
+       @OSPProject Memory
+    */
+    public void invalidate(PageTableEntry page)
+    {
+        int asid = page.getTask().getID();
+        int i = find(page.getID(), false, asid);
+        if(i >= 0)
+        {
+            entries[i] = null;
+        }
+        if(pageShift > 0 && page.inRun)
+        {
+            i = find(page.getID() >>> pageShift, true, asid);
+            if(i >= 0)
+            {
+                entries[i] = null;
+            }
+        }
+    }
+
+    public long getHitCount()
+    {
+        return hitcount;
+    }
+
+    public long getMissCount()
+    {
+        return misscount;
+    }
+
+    public long getFlushCount()
+    {
+        return flushcount;
+    }
+
+    public String toString()
+    {
+        long total = hitcount + misscount;
+        return "TLB " + hitcount + " hits, " + misscount + " misses ("
+               + ((total == 0) ? 0 : (100 * hitcount / total)) + "% hit rate), "
+               + flushcount + " flushes";
+    }
+
+    /*
+       Returns the way that holds the tag, a page number or with run set
+       a run number, in the address space, or -1.
+    */
+    private int find(int tag, boolean run, int asid)
+    {
+        int base = (tag & setMask) * ways;
+        for(int i = base; i < base + ways; i++)
+        {
+            if(entries[i] != null && pageNumbers[i] == tag && huge[i] == run && asids[i] == asid)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void switchTo(PageTable ptbr)
+    {
+        currentPTBR = ptbr;
+        currentASID = ptbr.getTask().getID();
+        if(!asidTagging)
+        {
+            Arrays.fill(entries, null);
+            flushcount++;
+        }
+    }
+}
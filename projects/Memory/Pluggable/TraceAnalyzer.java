@@ -0,0 +1,339 @@
+package osp.Memory;
+
+import java.io.*;
+import java.util.*;
+
+/**
+    TraceAnalyzer replays a reference trace written by TraceRecorder and
+    prints the number of page faults FIFO, LRU, Second Chance and the
+    optimal (Belady) algorithm take for every memory size from 1 to
+    maxFrames frames, all from a single pass over the trace:
+
+      java -classpath . osp.Memory.TraceAnalyzer trace [maxFrames [step]]
+
+    or "make analyze TRACE=trace". Replacement is global, over the pages
+    of all tasks, like in the simulation.
+
+    LRU and OPT are stack algorithms, so one stack serves every size:
+    LRU from the stack distance of each reference (counted with a
+    Fenwick tree over the last use of each page, O(log n) a reference),
+    OPT from Mattson's priority stack ordered by the time of each page's
+    next reference. FIFO and Second Chance are not stack algorithms
+    (FIFO shows Belady's anomaly), so one small simulator per size runs
+    alongside.
+
+    The trace knows nothing about locked frames or pages freed when a
+    task dies, so the counts are those of an ideal memory of the given
+    size and only approximate the simulation.
+
+    @OSPProject Memory
+*/
+public class TraceAnalyzer
+{
+    private int length = 0;
+    private int[] ids = new int[1 << 16];
+    private int distinct = 0;
+    private int tasks = 0;
+    private long writes = 0;
+
+    public static void main(String[] args) throws IOException
+    {
+        if(args.length < 1)
+        {
+            System.err.println("usage: TraceAnalyzer trace [maxFrames [step]]");
+            System.exit(1);
+        }
+        int maxFrames = (args.length > 1) ? Integer.parseInt(args[1]) : 64;
+        int step = (args.length > 2) ? Integer.parseInt(args[2]) : 1;
+
+        TraceAnalyzer analyzer = new TraceAnalyzer();
+        analyzer.read(args[0]);
+        analyzer.report(maxFrames, step);
+    }
+
+    /**
+       Reads the trace and numbers the distinct (task, page) pairs.
+    */
+    public void read(String fileName) throws IOException
+    {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(fileName), 1 << 16));
+        try
+        {
+            if(in.readInt() != TraceRecorder.MAGIC)
+            {
+                throw new IOException(fileName + " is not a memory reference trace");
+            }
+
+            Map<Long, Integer> pageIDs = new HashMap<Long, Integer>();
+            Set<Integer> taskIDs = new HashSet<Integer>();
+            while(true)
+            {
+                int task;
+                try
+                {
+                    task = in.readInt();
+                }
+                catch(EOFException e)
+                {
+                    break;
+                }
+                int page = in.readInt();
+                int type = in.readByte();
+                in.readLong();
+
+                Long key = ((long)task << 32) | (page & 0xFFFFFFFFL);
+                Integer id = pageIDs.get(key);
+                if(id == null)
+                {
+                    id = pageIDs.size();
+                    pageIDs.put(key, id);
+                }
+                taskIDs.add(task);
+                if(type == osp.Utilities.GlobalVariables.MemoryWrite)
+                {
+                    writes++;
+                }
+
+                if(length == ids.length)
+                {
+                    ids = Arrays.copyOf(ids, 2 * length);
+                }
+                ids[length++] = id;
+            }
+            distinct = pageIDs.size();
+            tasks = taskIDs.size();
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+    /**
+       Prints the fault counts for 1, 1+step, ... up to maxFrames frames.
+    */
+    public void report(int maxFrames, int step)
+    {
+        long[] lru = lruFaults(maxFrames);
+        long[] opt = optFaults(maxFrames);
+        long[] fifo = new long[maxFrames + 1];
+        long[] clock = new long[maxFrames + 1];
+        simulate(maxFrames, step, fifo, clock);
+
+        System.out.println(length + " references (" + writes + " writes) to " + distinct
+                           + " pages of " + tasks + " tasks");
+        System.out.println("frames       FIFO        LRU     SecondChance        OPT");
+        for(int m = 1; m <= maxFrames; m += step)
+        {
+            System.out.println(String.format("%6d %10d %10d %16d %10d", m, fifo[m], lru[m], clock[m], opt[m]));
+        }
+    }
+
+    /*
+       faults[m] for LRU with m frames, from the histogram of stack
+       distances. A page's last use is marked in the Fenwick tree, so the
+       marks after it count the distinct pages used since.
+    */
+    private long[] lruFaults(int maxFrames)
+    {
+        long[] histogram = new long[maxFrames + 2];
+        int[] lastUse = new int[distinct];
+        Arrays.fill(lastUse, -1);
+        int[] tree = new int[length + 1];
+
+        for(int i = 0; i < length; i++)
+        {
+            int id = ids[i];
+            int previous = lastUse[id];
+            if(previous < 0)
+            {
+                histogram[maxFrames + 1]++;
+            }
+            else
+            {
+                int distance = prefixSum(tree, i - 1) - prefixSum(tree, previous) + 1;
+                histogram[Math.min(distance, maxFrames + 1)]++;
+                add(tree, previous, -1);
+            }
+            add(tree, i, 1);
+            lastUse[id] = i;
+        }
+        return faultsFromHistogram(histogram, maxFrames);
+    }
+
+    /*
+       faults[m] for OPT with m frames. The stack keeps the pages in the
+       order OPT would keep them for every size at once: on a reference
+       the page goes on top and the pages above its old place are pushed
+       down, each level keeping whichever of two pages is needed sooner.
+       Only the top maxFrames levels matter.
+    */
+    private long[] optFaults(int maxFrames)
+    {
+        int[] nextUse = new int[length];
+        int[] seen = new int[distinct];
+        Arrays.fill(seen, Integer.MAX_VALUE);
+        for(int i = length - 1; i >= 0; i--)
+        {
+            nextUse[i] = seen[ids[i]];
+            seen[ids[i]] = i;
+        }
+
+        long[] histogram = new long[maxFrames + 2];
+        int[] priority = new int[distinct];
+        int[] stack = new int[maxFrames];
+        int size = 0;
+
+        for(int i = 0; i < length; i++)
+        {
+            int id = ids[i];
+            priority[id] = nextUse[i];
+
+            int depth = -1;
+            for(int j = 0; j < size; j++)
+            {
+                if(stack[j] == id)
+                {
+                    depth = j;
+                    break;
+                }
+            }
+            histogram[(depth < 0) ? maxFrames + 1 : depth + 1]++;
+            if(depth == 0)
+            {
+                continue;
+            }
+
+            int carry = (size > 0) ? stack[0] : -1;
+            stack[0] = id;
+            int end = (depth < 0) ? size : depth;
+            for(int j = 1; j < end; j++)
+            {
+                if(priority[stack[j]] > priority[carry])
+                {
+                    int t = stack[j];
+                    stack[j] = carry;
+                    carry = t;
+                }
+            }
+            if(depth > 0)
+            {
+                stack[depth] = carry;
+            }
+            else if(size == 0)
+            {
+                size = 1;
+            }
+            else if(size < maxFrames)
+            {
+                stack[size++] = carry;
+            }
+        }
+        return faultsFromHistogram(histogram, maxFrames);
+    }
+
+    /*
+       FIFO and Second Chance (CLOCK), one simulator per size.
+    */
+    private void simulate(int maxFrames, int step, long[] fifo, long[] clock)
+    {
+        for(int m = 1; m <= maxFrames; m += step)
+        {
+            int[] fifoFrames = new int[m];
+            int fifoSize = 0;
+            int fifoHand = 0;
+            boolean[] fifoResident = new boolean[distinct];
+
+            int[] clockFrames = new int[m];
+            boolean[] clockReferenced = new boolean[m];
+            int[] clockSlot = new int[distinct];
+            Arrays.fill(clockSlot, -1);
+            int clockSize = 0;
+            int clockHand = 0;
+
+            for(int i = 0; i < length; i++)
+            {
+                int id = ids[i];
+
+                if(!fifoResident[id])
+                {
+                    fifo[m]++;
+                    if(fifoSize < m)
+                    {
+                        fifoFrames[fifoSize++] = id;
+                    }
+                    else
+                    {
+                        fifoResident[fifoFrames[fifoHand]] = false;
+                        fifoFrames[fifoHand] = id;
+                        fifoHand = (fifoHand + 1) % m;
+                    }
+                    fifoResident[id] = true;
+                }
+
+                if(clockSlot[id] >= 0)
+                {
+                    clockReferenced[clockSlot[id]] = true;
+                }
+                else
+                {
+                    clock[m]++;
+                    int slot;
+                    if(clockSize < m)
+                    {
+                        slot = clockSize++;
+                    }
+                    else
+                    {
+                        while(clockReferenced[clockHand])
+                        {
+                            clockReferenced[clockHand] = false;
+                            clockHand = (clockHand + 1) % m;
+                        }
+                        slot = clockHand;
+                        clockSlot[clockFrames[slot]] = -1;
+                        clockHand = (clockHand + 1) % m;
+                    }
+                    clockFrames[slot] = id;
+                    clockReferenced[slot] = true;
+                    clockSlot[id] = slot;
+                }
+            }
+        }
+    }
+
+    /*
+       A reference at stack distance d hits in every memory of d frames
+       or more; histogram[maxFrames + 1] holds first references and
+       distances beyond maxFrames.
+    */
+    private static long[] faultsFromHistogram(long[] histogram, int maxFrames)
+    {
+        long[] faults = new long[maxFrames + 1];
+        long missing = histogram[maxFrames + 1];
+        for(int m = maxFrames; m >= 1; m--)
+        {
+            faults[m] = missing;
+            missing += histogram[m];
+        }
+        return faults;
+    }
+
+    private static void add(int[] tree, int index, int delta)
+    {
+        for(int i = index + 1; i < tree.length; i += i & -i)
+        {
+            tree[i] += delta;
+        }
+    }
+
+    private static int prefixSum(int[] tree, int index)
+    {
+        int sum = 0;
+        for(int i = index + 1; i > 0; i -= i & -i)
+        {
+            sum += tree[i];
+        }
+        return sum;
+    }
+}
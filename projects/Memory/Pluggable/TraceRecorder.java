@@ -0,0 +1,114 @@
+package osp.Memory;
+
+import java.io.*;
+import osp.Hardware.*;
+import osp.Utilities.*;
+
+/**
+    The TraceRecorder writes every memory reference seen by MMU.do_refer()
+    to a binary trace, for TraceAnalyzer to replay offline. The trace is
+    the MAGIC number followed by one 17 byte record per reference:
+
+      int   task ID
+      int   page number
+      byte  reference type (MemoryRead or MemoryWrite)
+      long  simulation clock
+
+    in DataOutput (big-endian) order. Recording is on when the TraceFile
+    key of the [Memory] section names a file. The stream is buffered and
+    closed by a shutdown hook when OSP exits.
+
+    @OSPProject Memory
+*/
+public class TraceRecorder
+{
+    public static final int MAGIC = 0x4F535054;
+
+    private DataOutputStream out;
+    private long recordcount = 0;
+
+    public TraceRecorder(String fileName) throws IOException
+    {
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName), 1 << 16));
+        out.writeInt(MAGIC);
+        Runtime.getRuntime().addShutdownHook(new Thread()
+        {
+            public void run()
+            {
+                close();
+            }
+        });
+    }
+
+    /**
+       Creates the recorder for the TraceFile parameter, or returns null
+       if the key is missing or the file cannot be created.
+
+       @OSPProject Memory
+    */
+    public static TraceRecorder create()
+    {
+        String fileName = MemoryParams.get("Memory", "TraceFile", "");
+        if(fileName.length() == 0)
+        {
+            return null;
+        }
+        try
+        {
+            MyOut.print("osp.Memory.TraceRecorder", "Recording memory references to " + fileName);
+            return new TraceRecorder(fileName);
+        }
+        catch(IOException e)
+        {
+            MyOut.warning("osp.Memory.TraceRecorder", "Cannot write trace " + fileName + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+       Appends one reference to the trace. A write error stops the
+       recording with a warning.
+
+       @OSPProject Memory
+    */
+    public synchronized void record(int taskID, int pageNo, int referenceType)
+    {
+        if(out == null)
+        {
+            return;
+        }
+        try
+        {
+            out.writeInt(taskID);
+            out.writeInt(pageNo);
+            out.writeByte(referenceType);
+            out.writeLong(HClock.get());
+            recordcount++;
+        }
+        catch(IOException e)
+        {
+            MyOut.warning(this, "Trace recording stopped after " + recordcount + " references: " + e);
+            close();
+        }
+    }
+
+    public long getRecordCount()
+    {
+        return recordcount;
+    }
+
+    private synchronized void close()
+    {
+        if(out != null)
+        {
+            try
+            {
+                out.close();
+            }
+            catch(IOException e)
+            {
+            }
+            out = null;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package osp.Memory;
+
+import java.util.*;
+import osp.Tasks.*;
+
+/**
+    WSClock (Carr and Hennessy). Each frame remembers the virtual time of
+    its last use, measured in CPU time of the task that owns the page. As
+    the clock hand sweeps, a referenced frame gets its bit cleared and its
+    time refreshed; an unreferenced frame older than the working-set
+    window tau is outside its task's working set and may go. A clean one
+    is taken at once, a dirty one is scheduled for write-back and passed,
+    so in-window pages are only touched when nothing else is left.
+
+    Scheduled write-backs wait on a queue (see nextWriteBack()). If a
+    full sweep finds no clean old page, the first scheduled frame is
+    returned and the fault handler writes it out as usual. When nothing
+    is outside its window, the oldest page of the task with the largest
+    resident set is taken.
+
+    tau is the WorkingSetWindow key of the [Memory] section.
+
+    @OSPProject Memory
+*/
+public class WSClockPolicy implements ReplacementPolicy
+{
+    private int hand = 0;
+    private long tau;
+    private LinkedHashSet<FrameTableEntry> writeBacks = new LinkedHashSet<FrameTableEntry>();
+
+    public WSClockPolicy()
+    {
+        tau = MemoryParams.getInt("Memory", "WorkingSetWindow", 2000);
+    }
+
+    public void onReference(FrameTableEntry frame, int referenceType)
+    {
+        frame.lastUse = virtualTime(frame);
+    }
+
+    public void onLoad(FrameTableEntry frame)
+    {
+        frame.lastUse = virtualTime(frame);
+    }
+
+    public void onEvict(FrameTableEntry frame)
+    {
+        writeBacks.remove(frame);
+    }
+
+    public FrameTableEntry selectVictim(TaskCB task)
+    {
+        int size = MMU.getFrameTableSize();
+        FrameState state = MMU.frameState;
+
+        for(int n = 0; n < 2 * size; n++)
+        {
+            int i = hand;
+            hand = (hand + 1) % size;
+
+            if(state.isPinned(i) && !state.isReferenced(i))
+            {
+                continue;
+            }
+            FrameTableEntry frame = MMU.getFrame(i);
+            if(frame.getPage() == null || (task != null && frame.getPage().getTask() != task))
+            {
+                continue;
+            }
+            if(frame.isReferenced())
+            {
+                frame.markReferenced(false);
+                frame.lastUse = virtualTime(frame);
+                writeBacks.remove(frame);
+                continue;
+            }
+            if(!frame.isReplaceableFor(task) || virtualTime(frame) - frame.lastUse <= tau)
+            {
+                continue;
+            }
+            if(!frame.isDirty())
+            {
+                return frame;
+            }
+            writeBacks.add(frame);
+        }
+
+        FrameTableEntry frame = nextWriteBack(task);
+        if(frame != null)
+        {
+            return frame;
+        }
+        return oldestOfLargestTask(task);
+    }
+
+    /**
+       Takes the next frame scheduled for write-back off the queue, or
+       returns null. Frames that were referenced, cleaned, pinned, parked
+       or claimed by a reclaim since they were scheduled are dropped;
+       frames of other tasks are left on the queue if task is not null.
+
+       @OSPProject Memory
+    */
+    public FrameTableEntry nextWriteBack(TaskCB task)
+    {
+        Iterator<FrameTableEntry> it = writeBacks.iterator();
+        while(it.hasNext())
+        {
+            FrameTableEntry frame = it.next();
+            if(task != null && frame.getPage() != null && frame.getPage().getTask() != task)
+            {
+                continue;
+            }
+            it.remove();
+            if(frame.isReplaceableFor(task) && frame.isDirty() && !frame.isReferenced())
+            {
+                return frame;
+            }
+        }
+        return null;
+    }
+
+    private FrameTableEntry oldestOfLargestTask(TaskCB task)
+    {
+        FrameTableEntry victim = null;
+        int victimResident = -1;
+        long victimAge = -1;
+
+        for(int i = MMU.frameState.nextUnpinned(0); i >= 0; i = MMU.frameState.nextUnpinned(i + 1))
+        {
+            FrameTableEntry frame = MMU.getFrame(i);
+            if(!frame.isReplaceableFor(task))
+            {
+                continue;
+            }
+            int resident = frame.getPage().getTask().getPageTable().getResidentCount();
+            long age = virtualTime(frame) - frame.lastUse;
+            if(resident > victimResident || (resident == victimResident && age > victimAge))
+            {
+                victim = frame;
+                victimResident = resident;
+                victimAge = age;
+            }
+        }
+        return victim;
+    }
+
+    private static long virtualTime(FrameTableEntry frame)
+    {
+        return (long)frame.getPage().getTask().getTimeOnCPU();
+    }
+}
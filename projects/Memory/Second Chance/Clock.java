@@ -0,0 +1,57 @@
+package osp.Memory;
+
+/**
+    The Clock class implements second chance replacement as a CLOCK: the
+    frame table itself is the circular buffer of frame indices and the
+    hand stays where the last victim was taken. A referenced frame has
+    its reference bit cleared as the hand passes it; nothing is moved or
+    re-queued, so a fault costs O(1) amortized.
+
+    Free frames are handed out by MMU.framePool in frame order and a new
+    page takes the slot of the page it replaces, so the hand visits
+    pages in the same order the old second chance queue did.
+
+    @OSPProject Memory
+*/
+public class Clock
+{
+    private int hand;
+
+    public Clock()
+    {
+        hand = 0;
+    }
+
+    /**
+       Advances the hand to the next frame that holds a page, is not
+       referenced and is neither reserved nor locked, and returns it.
+       Two turns are enough to clear every reference bit, so null after
+       that means no frame can be replaced.
+
+       @OSPProject Memory
+    */
+    public FrameTableEntry victim()
+    {
+        int size = MMU.getFrameTableSize();
+
+        for(int n = 0; n < 2 * size; n++)
+        {
+            FrameTableEntry frame = MMU.getFrame(hand);
+            hand = (hand + 1) % size;
+
+            if(frame.getPage() == null)
+            {
+                continue;
+            }
+            if(frame.isReferenced())
+            {
+                frame.setReferenced(false);
+            }
+            else if((!frame.isReserved()) && (frame.getLockCount() <= 0))
+            {
+                return frame;
+            }
+        }
+        return null;
+    }
+}
@@ -24,16 +24,19 @@ public class MMU extends IflMMU
         @OSPProject Memory
     */
 	
-	public static ArrayList<FrameTableEntry> SCAqueue;
+	public static Clock SCAclock;
+	public static FramePool framePool;
 	public static int pagefaultcount = 0;
     public static void init()
     {
-        for(int i = 0; i < MMU.getFrameTableSize(); i++)
+        framePool = new FramePool(MMU.getFrameTableSize());
+        for(int i = MMU.getFrameTableSize() - 1; i >= 0; i--)
     	{
         	setFrame(i, new FrameTableEntry(i));
+        	framePool.release(getFrame(i));
         }
 		
-		SCAqueue = new ArrayList<FrameTableEntry>();
+		SCAclock = new Clock();
     }
 
     /**
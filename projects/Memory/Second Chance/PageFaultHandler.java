@@ -92,25 +92,13 @@ import osp.IFLModules.*;
 public static int sca(ThreadCB thread,PageTableEntry page)
 {
     	FrameTableEntry newFrame = null;
-		int j= -1, i=0;
-		while(i < MMU.getFrameTableSize())
-    	{
-    		newFrame = MMU.getFrame(i);
-    		if((newFrame.isReserved()) || (newFrame.getLockCount()> 0))
-    		{
-				j++;
-			}
-			i++;
-		}
-		if(j == MMU.getFrameTableSize())
+		if(MMU.framePool.isExhausted())
 		{
 			return NotEnoughMemory;
 		}
 		
-    	for(int y = 0; y < MMU.getFrameTableSize(); y++)
-    	{
-    		newFrame = MMU.getFrame(y);
-    		if((newFrame.getPage() == null) && (!newFrame.isReserved()) && (newFrame.getLockCount() <= 0))
+    	newFrame = MMU.framePool.takeFree();
+    		if(newFrame != null)
     		{
 				Event pfevent = reserveThread(thread, page, newFrame);
 				
@@ -128,28 +116,15 @@ public static int sca(ThreadCB thread,PageTableEntry page)
 				newFrame.setPage(page);
     	        page.setValid(true);
     	
-		        MMU.SCAqueue.add(newFrame);
 				releaseThread(pfevent, page, newFrame, thread);
 				
 				ThreadCB.dispatch();
     	        return SUCCESS;
     		}
-    	}
 		
-		for(int x=0; x< MMU.SCAqueue.size(); x++)	
-		{
-			newFrame = MMU.SCAqueue.get(x);
-			if(newFrame.isReferenced())
-			{
-				newFrame.setReferenced(false);
-				MMU.SCAqueue.remove(x);
-				x--;
-				MMU.SCAqueue.add(newFrame);	
-			}
-			else 
-			{
-			  if((newFrame.getPage() != null) && (!newFrame.isReserved()) && (newFrame.getLockCount() <= 0))
-			  { 
+		newFrame = MMU.SCAclock.victim();
+		if(newFrame != null)
+		{ 
 				Event pfevent = reserveThread(thread, page, newFrame);
 				
 				PageTableEntry oldPage = newFrame.getPage();
@@ -170,8 +145,6 @@ public static int sca(ThreadCB thread,PageTableEntry page)
     		   newFrame.setPage(null);
     		   oldPage.setValid(false);
     		   oldPage.setFrame(null);
-			   MMU.SCAqueue.remove(x);
-		       x--;
 			   
 		       page.setFrame(newFrame);
     	       swapIn(thread, page);
@@ -187,13 +160,10 @@ public static int sca(ThreadCB thread,PageTableEntry page)
     	       newFrame.setPage(page);
     	       page.setValid(true);
     	       
-		       MMU.SCAqueue.add(newFrame);
     	       releaseThread(pfevent, page, newFrame, thread);
 			   
 			   ThreadCB.dispatch();
     	       return SUCCESS;
-		    }
-		  }
 		}
 		 
          ThreadCB.dispatch();
@@ -205,7 +175,7 @@ public static int sca(ThreadCB thread,PageTableEntry page)
 		Event pfevent = new SystemEvent("Kernel mode switching-PageFaultHappened");
     	thread.suspend(pfevent);
     	page.setValidatingThread(thread);
-    	newFrame.setReserved(thread.getTask());
+    	newFrame.reserve(thread.getTask());
 		return pfevent;
 	}
 	
@@ -213,7 +183,7 @@ public static int sca(ThreadCB thread,PageTableEntry page)
     {
 		if(newFrame.getReserved() == thread.getTask())
     	{
-    	    newFrame.setUnreserved(thread.getTask());    		
+    	    newFrame.unreserve(thread.getTask());    		
     	}
 		page.setValidatingThread(null);
     	page.notifyThreads();
@@ -238,7 +208,10 @@ public static int sca(ThreadCB thread,PageTableEntry page)
 		page.setFrame(null);
 	    page.notifyThreads();
         pfevent.notifyThreads();
-		newFrame.setPage(null);
+		if((newFrame.getPage() == null) || (newFrame.getPage() == page))
+		{
+			newFrame.releasePage();
+		}
 	}
 	
 	public static void swapOutCleanup(Event pfevent, PageTableEntry page)
@@ -72,7 +72,7 @@ public class PageTableEntry extends IflPageTableEntry
 	    	}
     	}
 
-    	getFrame().incrementLockCount();
+    	getFrame().lock();
     	return SUCCESS;
 
     }
@@ -92,7 +92,7 @@ public class PageTableEntry extends IflPageTableEntry
 		}
 		else
 		{
-			 getFrame().decrementLockCount();
+			 getFrame().unlock();
 		}
     }
 
@@ -0,0 +1,187 @@
+package osp.Threads;
+
+import java.util.Comparator;
+import java.util.TreeSet;
+import osp.Utilities.*;
+
+/**
+    Completely fair scheduling. Every thread accumulates virtual runtime:
+    its CPU time scaled by its weight, which is 1024 for priority 3 and
+    25% more for each step up (priority 1 is the most important), 20%
+    less for each step down. The ready thread with the least virtual
+    runtime runs next; the ready threads are kept in a TreeSet ordered
+    by it.
+
+    A time slice is the thread's share, by weight, of CFSLatency (a key
+    of the [Threads] section, 200 ticks by default) among itself and the
+    ready threads, but at least CFSMinGranularity (20 ticks), so all
+    ready threads get a turn within about one latency period however
+    many there are. When the slice ends, the thread gives way to a
+    thread with less virtual runtime. Before that, only a thread more
+    than CFSMinGranularity of virtual runtime behind preempts it.
+
+    A thread that was created or blocked for a while is placed no more
+    than half a latency period before the least virtual runtime of the
+    others, so sleeping does not buy it the CPU for long.
+
+    @OSPProject Threads
+*/
+public class CFSScheduler implements Scheduler
+{
+    /** Virtual runtime is kept in 1/1024 ticks. */
+    private static final long UNIT = 1024;
+    private static final long NICE_0_WEIGHT = 1024;
+
+    private int latency;
+    private int minGranularity;
+    private TreeSet<ThreadCB> tree = new TreeSet<ThreadCB>(new Comparator<ThreadCB>()
+    {
+        public int compare(ThreadCB a, ThreadCB b)
+        {
+            long va = state(a).vruntime;
+            long vb = state(b).vruntime;
+            if(va != vb)
+            {
+                return (va < vb) ? -1 : 1;
+            }
+            return a.getID() - b.getID();
+        }
+    });
+    private long readyWeight = 0;
+    private long minVruntime = 0;
+    private boolean sliceOver = false;
+
+    /* What the scheduler keeps in ThreadCB.schedState: the thread's
+       virtual runtime, the CPU time it covers so far and the weight the
+       thread was queued with. */
+    private static class State
+    {
+        long vruntime;
+        long vruntimeCharged;
+        long weight;
+    }
+
+    public CFSScheduler(int latency, int minGranularity)
+    {
+        this.latency = latency;
+        this.minGranularity = minGranularity;
+    }
+
+    /**
+       Creates the scheduler for the CFS keys of the [Threads] section.
+
+       @OSPProject Threads
+    */
+    public static CFSScheduler create()
+    {
+        int latency = Math.max(1, ThreadsParams.getInt("Threads", "CFSLatency", 200));
+        int minGranularity = Math.max(1, ThreadsParams.getInt("Threads", "CFSMinGranularity", 20));
+        MyOut.print("osp.Threads.CFSScheduler", "CFS latency " + latency + " ticks, minimum granularity "
+                    + minGranularity + " ticks");
+        return new CFSScheduler(latency, minGranularity);
+    }
+
+    public void enqueue(ThreadCB thread)
+    {
+        charge(thread);
+        State state = state(thread);
+        state.vruntime = Math.max(state.vruntime, minVruntime - latency * UNIT / 2);
+        state.weight = weightOf(thread);
+        tree.add(thread);
+        readyWeight += state.weight;
+    }
+
+    public ThreadCB pickNext(ThreadCB running)
+    {
+        boolean over = sliceOver;
+        sliceOver = false;
+
+        if(running != null)
+        {
+            charge(running);
+            updateMinVruntime(running);
+            ThreadCB first = tree.isEmpty() ? null : tree.first();
+            long vruntime = state(running).vruntime;
+            if(first == null
+               || (over && state(first).vruntime >= vruntime)
+               || (!over && vruntime - state(first).vruntime <= minGranularity * UNIT))
+            {
+                return running;
+            }
+        }
+        ThreadCB next = tree.pollFirst();
+        if(next != null)
+        {
+            readyWeight -= state(next).weight;
+            updateMinVruntime(next);
+        }
+        return next;
+    }
+
+    public void remove(ThreadCB thread)
+    {
+        if(tree.remove(thread))
+        {
+            readyWeight -= state(thread).weight;
+        }
+    }
+
+    /**
+       The thread's share of the latency period, by weight.
+    */
+    public int quantumFor(ThreadCB thread)
+    {
+        long weight = weightOf(thread);
+        long slice = latency * weight / (readyWeight + weight);
+        return (int)Math.max(minGranularity, slice);
+    }
+
+    public void onTimer(ThreadCB running)
+    {
+        sliceOver = true;
+    }
+
+    /*
+       Adds the CPU time the thread used since it was last charged to its
+       virtual runtime. Must not be called while it is in the tree.
+    */
+    private void charge(ThreadCB thread)
+    {
+        State state = state(thread);
+        long cpuTime = thread.cpuTime();
+        long delta = cpuTime - state.vruntimeCharged;
+        if(delta > 0)
+        {
+            state.vruntime += delta * UNIT * NICE_0_WEIGHT / weightOf(thread);
+            state.vruntimeCharged = cpuTime;
+        }
+    }
+
+    /*
+       Moves minVruntime, which never goes back, up to the least virtual
+       runtime of the running and the ready threads.
+    */
+    private void updateMinVruntime(ThreadCB running)
+    {
+        long least = state(running).vruntime;
+        if(!tree.isEmpty())
+        {
+            least = Math.min(least, state(tree.first()).vruntime);
+        }
+        minVruntime = Math.max(minVruntime, least);
+    }
+
+    private static State state(ThreadCB thread)
+    {
+        if(thread.schedState == null)
+        {
+            thread.schedState = new State();
+        }
+        return (State)thread.schedState;
+    }
+
+    private static long weightOf(ThreadCB thread)
+    {
+        return Math.round(NICE_0_WEIGHT * Math.pow(1.25, 3 - thread.getPriority()));
+    }
+}
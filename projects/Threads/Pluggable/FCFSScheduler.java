@@ -0,0 +1,38 @@
+package osp.Threads;
+
+import java.util.ArrayDeque;
+
+/**
+    First come, first served: threads run in the order they became ready
+    and keep the CPU until they block or die.
+
+    @OSPProject Threads
+*/
+public class FCFSScheduler implements Scheduler
+{
+    private ArrayDeque<ThreadCB> queue = new ArrayDeque<ThreadCB>();
+
+    public void enqueue(ThreadCB thread)
+    {
+        queue.addLast(thread);
+    }
+
+    public ThreadCB pickNext(ThreadCB running)
+    {
+        return (running != null) ? running : queue.pollFirst();
+    }
+
+    public void remove(ThreadCB thread)
+    {
+        queue.remove(thread);
+    }
+
+    public int quantumFor(ThreadCB thread)
+    {
+        return 0;
+    }
+
+    public void onTimer(ThreadCB running)
+    {
+    }
+}
@@ -0,0 +1,228 @@
+package osp.Threads;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import osp.Hardware.*;
+import osp.Utilities.*;
+
+/**
+    Multi-level feedback queue. New threads start on level 0, the
+    highest. A thread may use the quantum of its level in CPU time,
+    over as many turns on the CPU as it takes, before it moves one
+    level down; blocking early does not reset what it has used.
+    A ready thread on a higher level preempts the running one at once,
+    and threads on the same level take turns when a time slice ends.
+    Every boost interval all threads go back to level 0.
+
+    The [Threads] section sets the number of levels (MLFQLevels, 2 by
+    default), their quanta in ticks (MLFQQuanta, "30 60" by default; a
+    missing quantum is twice the one above it) and the boost interval
+    (MLFQBoostInterval, 1000 ticks by default, 0 turns boosting off).
+
+    Each level is a queue of ArrayDeque segments. A boost appends the
+    segments of the lower levels to level 0 as they are and starts a
+    new epoch; a thread from an older epoch counts as a level 0 thread
+    with a fresh allotment. So the boost touches one segment per level
+    instead of every waiting thread.
+
+    @OSPProject Threads
+*/
+public class MLFQScheduler implements Scheduler
+{
+    private int[] quanta;
+    private int boostInterval;
+    private List<ArrayDeque<ArrayDeque<ThreadCB>>> levels;
+    private int epoch = 0;
+    private long lastBoost = 0;
+    private boolean sliceOver = false;
+
+    /* What the scheduler keeps in ThreadCB.schedState: the thread's
+       level, its epoch and the CPU time at which it entered the level. */
+    private static class State
+    {
+        int level;
+        int epoch;
+        long allotmentStart;
+    }
+
+    public MLFQScheduler(int[] quanta, int boostInterval)
+    {
+        this.quanta = quanta;
+        this.boostInterval = boostInterval;
+        levels = new ArrayList<ArrayDeque<ArrayDeque<ThreadCB>>>(quanta.length);
+        for(int i = 0; i < quanta.length; i++)
+        {
+            levels.add(new ArrayDeque<ArrayDeque<ThreadCB>>());
+        }
+    }
+
+    /**
+       Creates the scheduler for the MLFQ keys of the [Threads] section.
+
+       @OSPProject Threads
+    */
+    public static MLFQScheduler create()
+    {
+        int count = Math.max(1, ThreadsParams.getInt("Threads", "MLFQLevels", 2));
+        String[] given = ThreadsParams.get("Threads", "MLFQQuanta", "30 60").trim().split("\\s+");
+        int[] quanta = new int[count];
+        for(int i = 0; i < count; i++)
+        {
+            quanta[i] = (i == 0) ? 30 : 2 * quanta[i - 1];
+            if(i < given.length)
+            {
+                try
+                {
+                    quanta[i] = Math.max(1, Integer.parseInt(given[i]));
+                }
+                catch(NumberFormatException e)
+                {
+                    // keep the default
+                }
+            }
+        }
+        int boostInterval = ThreadsParams.getInt("Threads", "MLFQBoostInterval", 1000);
+
+        StringBuilder line = new StringBuilder("MLFQ quanta:");
+        for(int quantum : quanta)
+        {
+            line.append(' ').append(quantum);
+        }
+        MyOut.print("osp.Threads.MLFQScheduler", line + "; boost every " + boostInterval + " ticks");
+        return new MLFQScheduler(quanta, boostInterval);
+    }
+
+    public void enqueue(ThreadCB thread)
+    {
+        charge(thread);
+        ArrayDeque<ArrayDeque<ThreadCB>> level = levels.get(state(thread).level);
+        if(level.isEmpty())
+        {
+            level.addLast(new ArrayDeque<ThreadCB>());
+        }
+        level.peekLast().addLast(thread);
+    }
+
+    public ThreadCB pickNext(ThreadCB running)
+    {
+        boostIfDue();
+        boolean over = sliceOver;
+        sliceOver = false;
+
+        int top = topLevel();
+        if(running != null)
+        {
+            charge(running);
+            int level = state(running).level;
+            if(top < 0 || top > level || (top == level && !over))
+            {
+                return running;
+            }
+        }
+        return (top < 0) ? null : poll(top);
+    }
+
+    public void remove(ThreadCB thread)
+    {
+        for(ArrayDeque<ThreadCB> segment : levels.get(levelOf(thread)))
+        {
+            if(segment.remove(thread))
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+       The rest of the thread's allotment on its level.
+    */
+    public int quantumFor(ThreadCB thread)
+    {
+        int level = levelOf(thread);
+        long used = thread.cpuTime() - state(thread).allotmentStart;
+        return (int)Math.max(1, quanta[level] - used);
+    }
+
+    public void onTimer(ThreadCB running)
+    {
+        sliceOver = true;
+    }
+
+    /*
+       Brings the thread into the current epoch and moves it down a level
+       if it has used up its allotment; on the lowest level it just gets
+       a new one.
+    */
+    private void charge(ThreadCB thread)
+    {
+        int level = levelOf(thread);
+        State state = state(thread);
+        if(thread.cpuTime() - state.allotmentStart >= quanta[level])
+        {
+            state.level = Math.min(level + 1, quanta.length - 1);
+            state.allotmentStart = thread.cpuTime();
+        }
+    }
+
+    private int levelOf(ThreadCB thread)
+    {
+        State state = state(thread);
+        if(state.epoch != epoch)
+        {
+            state.epoch = epoch;
+            state.level = 0;
+            state.allotmentStart = thread.cpuTime();
+        }
+        return state.level;
+    }
+
+    private static State state(ThreadCB thread)
+    {
+        if(thread.schedState == null)
+        {
+            thread.schedState = new State();
+        }
+        return (State)thread.schedState;
+    }
+
+    private int topLevel()
+    {
+        for(int i = 0; i < levels.size(); i++)
+        {
+            ArrayDeque<ArrayDeque<ThreadCB>> level = levels.get(i);
+            while(!level.isEmpty() && level.peekFirst().isEmpty())
+            {
+                level.pollFirst();
+            }
+            if(!level.isEmpty())
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private ThreadCB poll(int i)
+    {
+        ThreadCB thread = levels.get(i).peekFirst().pollFirst();
+        levelOf(thread);
+        return thread;
+    }
+
+    private void boostIfDue()
+    {
+        long now = HClock.get();
+        if(boostInterval <= 0 || now - lastBoost < boostInterval)
+        {
+            return;
+        }
+        lastBoost = now - now % boostInterval;
+        epoch++;
+        for(int i = 1; i < levels.size(); i++)
+        {
+            levels.get(0).addAll(levels.get(i));
+            levels.get(i).clear();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package osp.Threads;
+
+/**
+    Preemptive priority scheduling: the ready thread with the lowest
+    priority number runs, and it preempts the running thread if that
+    one has a higher number. Equal priorities run in order of arrival.
+    The ready threads are kept in a ReadyQueue heap.
+
+    @OSPProject Threads
+*/
+public class PriorityScheduler implements Scheduler
+{
+    private ReadyQueue queue = new ReadyQueue();
+
+    public void enqueue(ThreadCB thread)
+    {
+        queue.add(thread);
+    }
+
+    public ThreadCB pickNext(ThreadCB running)
+    {
+        ThreadCB first = queue.peek();
+        if(running != null && (first == null || first.getPriority() >= running.getPriority()))
+        {
+            return running;
+        }
+        return queue.poll();
+    }
+
+    public void remove(ThreadCB thread)
+    {
+        queue.remove(thread);
+    }
+
+    public int quantumFor(ThreadCB thread)
+    {
+        return 0;
+    }
+
+    public void onTimer(ThreadCB running)
+    {
+    }
+}
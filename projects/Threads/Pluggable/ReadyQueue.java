@@ -0,0 +1,183 @@
+package osp.Threads;
+
+import java.util.Arrays;
+
+/**
+   The ready queue of the priority scheduler: an indexed binary min-heap
+   of threads keyed on (priority, arrival), so the thread with the
+   lowest priority number that has waited longest comes out first, the
+   same thread the linear scan of the ready list used to pick. Every
+   thread keeps its position in the heap in its ThreadCB.schedState, so
+   add(), poll() and remove() of any thread take O(log n).
+
+   @OSPProject Threads
+*/
+public class ReadyQueue
+{
+    private ThreadCB[] heap = new ThreadCB[64];
+    private int size = 0;
+    private long arrivals = 0;
+
+    /* What the queue keeps in ThreadCB.schedState. */
+    private static class Slot
+    {
+        int index = -1;
+        long arrival;
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public boolean contains(ThreadCB thread)
+    {
+        int i = slot(thread).index;
+        return i >= 0 && i < size && heap[i] == thread;
+    }
+
+    /**
+       Adds the thread behind the ready threads of the same priority.
+
+       @OSPProject Threads
+    */
+    public void add(ThreadCB thread)
+    {
+        if(contains(thread))
+        {
+            return;
+        }
+        if(size == heap.length)
+        {
+            heap = Arrays.copyOf(heap, 2 * size);
+        }
+        slot(thread).arrival = arrivals++;
+        heap[size] = thread;
+        slot(thread).index = size;
+        size++;
+        siftUp(size - 1);
+    }
+
+    /**
+       Returns the next thread to run without removing it, or null.
+
+       @OSPProject Threads
+    */
+    public ThreadCB peek()
+    {
+        return (size == 0) ? null : heap[0];
+    }
+
+    /**
+       Removes and returns the next thread to run, or null.
+
+       @OSPProject Threads
+    */
+    public ThreadCB poll()
+    {
+        if(size == 0)
+        {
+            return null;
+        }
+        ThreadCB first = heap[0];
+        removeAt(0);
+        return first;
+    }
+
+    /**
+       Removes the thread if it is in the queue.
+
+       @OSPProject Threads
+    */
+    public boolean remove(ThreadCB thread)
+    {
+        if(!contains(thread))
+        {
+            return false;
+        }
+        removeAt(slot(thread).index);
+        return true;
+    }
+
+    private void removeAt(int i)
+    {
+        ThreadCB removed = heap[i];
+        size--;
+        if(i != size)
+        {
+            heap[i] = heap[size];
+            slot(heap[i]).index = i;
+            siftDown(siftUp(i));
+        }
+        heap[size] = null;
+        slot(removed).index = -1;
+    }
+
+    private int siftUp(int i)
+    {
+        ThreadCB thread = heap[i];
+        while(i > 0)
+        {
+            int parent = (i - 1) >>> 1;
+            if(!before(thread, heap[parent]))
+            {
+                break;
+            }
+            heap[i] = heap[parent];
+            slot(heap[i]).index = i;
+            i = parent;
+        }
+        heap[i] = thread;
+        slot(thread).index = i;
+        return i;
+    }
+
+    private void siftDown(int i)
+    {
+        ThreadCB thread = heap[i];
+        while(true)
+        {
+            int child = 2 * i + 1;
+            if(child >= size)
+            {
+                break;
+            }
+            if(child + 1 < size && before(heap[child + 1], heap[child]))
+            {
+                child++;
+            }
+            if(!before(heap[child], thread))
+            {
+                break;
+            }
+            heap[i] = heap[child];
+            slot(heap[i]).index = i;
+            i = child;
+        }
+        heap[i] = thread;
+        slot(thread).index = i;
+    }
+
+    private static boolean before(ThreadCB a, ThreadCB b)
+    {
+        if(a.getPriority() != b.getPriority())
+        {
+            return a.getPriority() < b.getPriority();
+        }
+        return slot(a).arrival < slot(b).arrival;
+    }
+
+    private static Slot slot(ThreadCB thread)
+    {
+        if(thread.schedState == null)
+        {
+            thread.schedState = new Slot();
+        }
+        return (Slot)thread.schedState;
+    }
+}
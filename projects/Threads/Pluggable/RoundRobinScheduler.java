@@ -0,0 +1,46 @@
+package osp.Threads;
+
+import java.util.ArrayDeque;
+
+/**
+    Round robin: the running thread goes to the back of the ready queue
+    at every dispatch, and a thread runs for at most one time slice
+    (TimeSlice in the [Threads] section, 100 ticks by default).
+
+    @OSPProject Threads
+*/
+public class RoundRobinScheduler implements Scheduler
+{
+    private ArrayDeque<ThreadCB> queue = new ArrayDeque<ThreadCB>();
+    private int timeSlice;
+
+    public RoundRobinScheduler(int timeSlice)
+    {
+        this.timeSlice = timeSlice;
+    }
+
+    public void enqueue(ThreadCB thread)
+    {
+        queue.addLast(thread);
+    }
+
+    public ThreadCB pickNext(ThreadCB running)
+    {
+        ThreadCB next = queue.pollFirst();
+        return (next != null) ? next : running;
+    }
+
+    public void remove(ThreadCB thread)
+    {
+        queue.remove(thread);
+    }
+
+    public int quantumFor(ThreadCB thread)
+    {
+        return timeSlice;
+    }
+
+    public void onTimer(ThreadCB running)
+    {
+    }
+}
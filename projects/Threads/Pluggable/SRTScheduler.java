@@ -0,0 +1,163 @@
+package osp.Threads;
+
+import java.util.Comparator;
+import java.util.TreeSet;
+import osp.Utilities.*;
+
+/**
+    Shortest remaining time first. The length of a thread's next CPU
+    burst, from dispatch until it blocks, is predicted by exponential
+    averaging of its past bursts:
+
+        prediction = alpha * last burst + (1 - alpha) * prediction
+
+    with alpha given in percent by SRTAlpha (a key of the [Threads]
+    section, 50 by default) and the first prediction by
+    SRTInitialBurst (50 ticks). A burst may span several turns on the
+    CPU: it ends when the thread blocks, i.e. when it becomes ready
+    again other than by being preempted or taken off the ready queue.
+    What the thread has run of its current burst is subtracted from the
+    prediction to give its remaining time. The ready thread
+    with the least remaining time runs next; the ready threads are kept
+    in a TreeSet ordered by it.
+
+    With SRTPreempt 1 (the default) a thread that becomes ready with
+    less remaining time than the running thread preempts it; with 0 the
+    running thread keeps the CPU until it blocks, i.e. shortest job
+    first.
+
+    @OSPProject Threads
+*/
+public class SRTScheduler implements Scheduler
+{
+    private int alpha;
+    private long initialBurst;
+    private boolean preemptive;
+    private TreeSet<ThreadCB> tree = new TreeSet<ThreadCB>(new Comparator<ThreadCB>()
+    {
+        public int compare(ThreadCB a, ThreadCB b)
+        {
+            long ra = state(a).remainingBurst;
+            long rb = state(b).remainingBurst;
+            if(ra != rb)
+            {
+                return (ra < rb) ? -1 : 1;
+            }
+            return a.getID() - b.getID();
+        }
+    });
+
+    /* What the scheduler keeps in ThreadCB.schedState: the predicted
+       length of the thread's current burst, the CPU time at which the
+       burst began, its predicted rest when the thread was queued, and
+       whether the thread's next enqueue() continues the burst. */
+    private static class State
+    {
+        long predictedBurst;
+        long burstStart;
+        long remainingBurst;
+        boolean continues;
+    }
+
+    public SRTScheduler(int alpha, long initialBurst, boolean preemptive)
+    {
+        this.alpha = alpha;
+        this.initialBurst = initialBurst;
+        this.preemptive = preemptive;
+    }
+
+    /**
+       Creates the scheduler for the SRT keys of the [Threads] section.
+
+       @OSPProject Threads
+    */
+    public static SRTScheduler create()
+    {
+        int alpha = Math.min(100, Math.max(0, ThreadsParams.getInt("Threads", "SRTAlpha", 50)));
+        int initialBurst = Math.max(1, ThreadsParams.getInt("Threads", "SRTInitialBurst", 50));
+        boolean preemptive = ThreadsParams.getInt("Threads", "SRTPreempt", 1) != 0;
+        MyOut.print("osp.Threads.SRTScheduler", "SRT alpha " + alpha + "%, first prediction "
+                    + initialBurst + " ticks" + (preemptive ? ", preemptive" : ""));
+        return new SRTScheduler(alpha, initialBurst, preemptive);
+    }
+
+    public void enqueue(ThreadCB thread)
+    {
+        State state = state(thread);
+        if(!state.continues)
+        {
+            endBurst(thread, state);
+        }
+        state.continues = false;
+        state.remainingBurst = remaining(thread);
+        tree.add(thread);
+    }
+
+    public ThreadCB pickNext(ThreadCB running)
+    {
+        if(running != null)
+        {
+            if(tree.isEmpty() || !preemptive
+               || state(tree.first()).remainingBurst >= remaining(running))
+            {
+                return running;
+            }
+            state(running).continues = true;
+        }
+        return tree.pollFirst();
+    }
+
+    public void remove(ThreadCB thread)
+    {
+        if(tree.remove(thread))
+        {
+            state(thread).continues = true;
+        }
+    }
+
+    public int quantumFor(ThreadCB thread)
+    {
+        return 0;
+    }
+
+    public void onTimer(ThreadCB running)
+    {
+    }
+
+    /*
+       Folds the burst the thread just completed into its prediction and
+       starts the next one.
+    */
+    private void endBurst(ThreadCB thread, State state)
+    {
+        long length = thread.cpuTime() - state.burstStart;
+        state.predictedBurst = (alpha * length + (100 - alpha) * state.predictedBurst) / 100;
+        state.burstStart = thread.cpuTime();
+    }
+
+    /*
+       The predicted rest of the thread's current burst.
+    */
+    private long remaining(ThreadCB thread)
+    {
+        State state = state(thread);
+        long used = thread.cpuTime() - state.burstStart;
+        return Math.max(0, state.predictedBurst - used);
+    }
+
+    /*
+       A new thread starts its first burst with the first prediction.
+    */
+    private State state(ThreadCB thread)
+    {
+        if(thread.schedState == null)
+        {
+            State state = new State();
+            state.predictedBurst = initialBurst;
+            state.burstStart = thread.cpuTime();
+            state.continues = true;
+            thread.schedState = state;
+        }
+        return (State)thread.schedState;
+    }
+}
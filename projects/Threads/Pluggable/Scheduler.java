@@ -0,0 +1,53 @@
+package osp.Threads;
+
+/**
+    A CPU scheduling policy. ThreadCB does the status changes and the
+    context switches and only asks the scheduler which ready thread runs
+    next and for how long; the scheduler owns the ready queue.
+    Anything it keeps per thread goes in ThreadCB.schedState, which
+    belongs to the scheduler in use.
+
+    The scheduler is picked at startup from the SchedulerPolicy key of
+    the [Threads] section of the parameter file, see
+    ThreadCB.createScheduler().
+
+    @OSPProject Threads
+*/
+public interface Scheduler
+{
+    /**
+       Called when the thread becomes ready: when it is created, resumed,
+       or preempted by pickNext(). Its status is ThreadReady already.
+    */
+    void enqueue(ThreadCB thread);
+
+    /**
+       Returns the thread that should be on the CPU now and takes it off
+       the ready queue. Returning the running thread keeps it on the CPU;
+       returning another thread preempts the running one, which ThreadCB
+       then hands back through enqueue().
+
+       @param running the thread on the CPU, or null if it is idle
+       @return the thread to run, or null if none is ready
+    */
+    ThreadCB pickNext(ThreadCB running);
+
+    /**
+       Called when a ready thread is killed or suspended and has to leave
+       the ready queue.
+    */
+    void remove(ThreadCB thread);
+
+    /**
+       Returns the time slice of the thread just dispatched, in ticks, or
+       0 to leave the timer alone.
+    */
+    int quantumFor(ThreadCB thread);
+
+    /**
+       Called on a timer interrupt before the dispatch it causes.
+
+       @param running the thread on the CPU, or null if it is idle
+    */
+    void onTimer(ThreadCB running);
+}
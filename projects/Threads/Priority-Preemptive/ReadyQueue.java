@@ -0,0 +1,167 @@
+package osp.Threads;
+
+import java.util.Arrays;
+
+/**
+   The ready queue of the priority scheduler: an indexed binary min-heap
+   of threads keyed on (priority, arrival), so the thread with the
+   lowest priority number that has waited longest comes out first, the
+   same thread the linear scan of the ready list used to pick. Every
+   thread keeps its position in the heap, so add(), poll() and remove()
+   of any thread take O(log n).
+
+   @OSPProject Threads
+*/
+public class ReadyQueue
+{
+    private ThreadCB[] heap = new ThreadCB[64];
+    private int size = 0;
+    private long arrivals = 0;
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public boolean contains(ThreadCB thread)
+    {
+        int i = thread.heapIndex;
+        return i >= 0 && i < size && heap[i] == thread;
+    }
+
+    /**
+       Adds the thread behind the ready threads of the same priority.
+
+       @OSPProject Threads
+    */
+    public void add(ThreadCB thread)
+    {
+        if(contains(thread))
+        {
+            return;
+        }
+        if(size == heap.length)
+        {
+            heap = Arrays.copyOf(heap, 2 * size);
+        }
+        thread.arrival = arrivals++;
+        heap[size] = thread;
+        thread.heapIndex = size;
+        size++;
+        siftUp(size - 1);
+    }
+
+    /**
+       Returns the next thread to run without removing it, or null.
+
+       @OSPProject Threads
+    */
+    public ThreadCB peek()
+    {
+        return (size == 0) ? null : heap[0];
+    }
+
+    /**
+       Removes and returns the next thread to run, or null.
+
+       @OSPProject Threads
+    */
+    public ThreadCB poll()
+    {
+        if(size == 0)
+        {
+            return null;
+        }
+        ThreadCB first = heap[0];
+        removeAt(0);
+        return first;
+    }
+
+    /**
+       Removes the thread if it is in the queue.
+
+       @OSPProject Threads
+    */
+    public boolean remove(ThreadCB thread)
+    {
+        if(!contains(thread))
+        {
+            return false;
+        }
+        removeAt(thread.heapIndex);
+        return true;
+    }
+
+    private void removeAt(int i)
+    {
+        ThreadCB removed = heap[i];
+        size--;
+        if(i != size)
+        {
+            heap[i] = heap[size];
+            heap[i].heapIndex = i;
+            siftDown(siftUp(i));
+        }
+        heap[size] = null;
+        removed.heapIndex = -1;
+    }
+
+    private int siftUp(int i)
+    {
+        ThreadCB thread = heap[i];
+        while(i > 0)
+        {
+            int parent = (i - 1) >>> 1;
+            if(!before(thread, heap[parent]))
+            {
+                break;
+            }
+            heap[i] = heap[parent];
+            heap[i].heapIndex = i;
+            i = parent;
+        }
+        heap[i] = thread;
+        thread.heapIndex = i;
+        return i;
+    }
+
+    private void siftDown(int i)
+    {
+        ThreadCB thread = heap[i];
+        while(true)
+        {
+            int child = 2 * i + 1;
+            if(child >= size)
+            {
+                break;
+            }
+            if(child + 1 < size && before(heap[child + 1], heap[child]))
+            {
+                child++;
+            }
+            if(!before(heap[child], thread))
+            {
+                break;
+            }
+            heap[i] = heap[child];
+            heap[i].heapIndex = i;
+            i = child;
+        }
+        heap[i] = thread;
+        thread.heapIndex = i;
+    }
+
+    private static boolean before(ThreadCB a, ThreadCB b)
+    {
+        if(a.getPriority() != b.getPriority())
+        {
+            return a.getPriority() < b.getPriority();
+        }
+        return a.arrival < b.arrival;
+    }
+}
@@ -1,6 +1,5 @@
 package osp.Threads;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import osp.Utilities.*;
@@ -35,7 +34,11 @@ public class ThreadCB extends IflThreadCB
 
     }
     
-    static ArrayList<ThreadCB> rdQueue;
+    /** Position in the ready queue (-1 if not in it) and arrival there. */
+    int heapIndex = -1;
+    long arrival;
+
+    static ReadyQueue rdQueue;
     static long ThreadCount,ThreadFinish;
     static Map<Integer, Long> startMap;
     static Map<Integer, Long> endMap;
@@ -48,7 +51,7 @@ public class ThreadCB extends IflThreadCB
     */
     public static void init()
     {
-        rdQueue = new ArrayList<ThreadCB>();
+        rdQueue = new ReadyQueue();
         ThreadCount = 0;
 		ThreadFinish=0;
         startMap=new HashMap<Integer, Long>();
@@ -192,7 +195,8 @@ public class ThreadCB extends IflThreadCB
         }
         else
         {
-            setStatus(ThreadWaiting);        // Thread Status-ThreadReady
+            rdQueue.remove(this);            // Thread Status-ThreadReady
+            setStatus(ThreadWaiting);
         }
         if(!event.contains(this))
             event.addThread(this);
@@ -243,23 +247,8 @@ public class ThreadCB extends IflThreadCB
     */
     public static int do_dispatch()
     {
-		ThreadCB maxpriorityThread=null;
-		int j=0;
+		ThreadCB maxpriorityThread=rdQueue.peek();
         ThreadCB oldThread=null,newThread;
-        if (!rdQueue.isEmpty())
-        {    
-          maxpriorityThread=rdQueue.get(0);
-	      int i= -1;
-          for(ThreadCB itr : rdQueue)
-          {
-			i++;
-            if (itr.getPriority() < maxpriorityThread.getPriority())
-            {
-                maxpriorityThread=itr;
-				j=i;
-            }
-          }
-        }
 		
         try
         {
@@ -292,7 +281,7 @@ public class ThreadCB extends IflThreadCB
             }
 		}
 	    
-		newThread = rdQueue.remove(j);
+		newThread = rdQueue.poll();
 		newThread.setStatus(ThreadRunning);
         MMU.setPTBR(newThread.getTask().getPageTable());
         newThread.getTask().setCurrentThread(newThread);